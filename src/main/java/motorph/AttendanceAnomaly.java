@@ -0,0 +1,42 @@
+package motorph;
+
+/**
+ * An attendance row that was rejected while reading attendance.csv.
+ * Rejected rows are left out of every calculation and written to the quarantine file.
+ */
+public class AttendanceAnomaly {
+
+    public enum Type {
+        MALFORMED_ROW,
+        UNPARSEABLE_VALUE,
+        MISSING_PUNCH,
+        TIME_OUT_BEFORE_TIME_IN,
+        DUPLICATE_DAY,
+        UNKNOWN_EMPLOYEE
+    }
+
+    private final Type type;
+    private final int lineNumber;
+    private final String employeeId;
+    private final String row;
+    private final String detail;
+
+    public AttendanceAnomaly(Type type, int lineNumber, String employeeId, String row, String detail) {
+        this.type = type;
+        this.lineNumber = lineNumber;
+        this.employeeId = employeeId;
+        this.row = row;
+        this.detail = detail;
+    }
+
+    public Type getType() { return type; }
+    public int getLineNumber() { return lineNumber; }
+    public String getEmployeeId() { return employeeId; }
+    public String getRow() { return row; }
+    public String getDetail() { return detail; }
+
+    @Override
+    public String toString() {
+        return "Line " + lineNumber + ": " + type + " - " + detail + " [" + row + "]";
+    }
+}
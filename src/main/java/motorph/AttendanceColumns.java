@@ -0,0 +1,53 @@
+package motorph;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Column-oriented copy of a list of attendance records.
+ * Punch times are stored as minute-of-day ints in parallel arrays so that
+ * PunchAggregator can sum whole blocks of punches in tight primitive loops.
+ * Row i of every array describes the i-th record of the source list.
+ */
+public final class AttendanceColumns {
+    private final String[] employeeIds;
+    private final LocalDate[] dates;
+    final int[] timeIn;
+    final int[] timeOut;
+    final int[] restDay; // 1 on Saturday/Sunday, 0 otherwise
+    final int[] regularHoliday; // 1 on a regular holiday, 0 otherwise
+    final int[] specialHoliday; // 1 on a special non-working holiday, 0 otherwise
+
+    private AttendanceColumns(int size) {
+        employeeIds = new String[size];
+        dates = new LocalDate[size];
+        timeIn = new int[size];
+        timeOut = new int[size];
+        restDay = new int[size];
+        regularHoliday = new int[size];
+        specialHoliday = new int[size];
+    }
+
+    /**
+     * Builds the columns from records, keeping their order.
+     */
+    public static AttendanceColumns of(List<Attendance> records) {
+        AttendanceColumns columns = new AttendanceColumns(records.size());
+        for (int i = 0; i < records.size(); i++) {
+            Attendance record = records.get(i);
+            columns.employeeIds[i] = record.getEmployeeId();
+            columns.dates[i] = record.getDate();
+            columns.timeIn[i] = PayrollKernel.minuteOfDay(record.getTimeIn());
+            columns.timeOut[i] = PayrollKernel.minuteOfDay(record.getTimeOut());
+            columns.restDay[i] = PayPeriodCalendar.isRestDay(record.getDate()) ? 1 : 0;
+            int holiday = HolidayCalendar.holidayType(record.getDate());
+            columns.regularHoliday[i] = holiday == HolidayCalendar.REGULAR ? 1 : 0;
+            columns.specialHoliday[i] = holiday == HolidayCalendar.SPECIAL ? 1 : 0;
+        }
+        return columns;
+    }
+
+    public int size() { return timeIn.length; }
+    public String getEmployeeId(int row) { return employeeIds[row]; }
+    public LocalDate getDate(int row) { return dates[row]; }
+}
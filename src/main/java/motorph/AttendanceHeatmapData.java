@@ -0,0 +1,152 @@
+package motorph;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Minutes late and overtime minutes per series and day, for the attendance heatmap.
+ * A series is one employee, or one team (the employees under the same immediate
+ * supervisor). Days run from the first to the last attendance date.
+ *
+ * Cells are flat arrays indexed series * dayCount + day. Each cell holds the sum
+ * over its records and the record count, so a team cell shows the average of its
+ * members and a single record can be added or taken back without a rebuild.
+ */
+public final class AttendanceHeatmapData {
+
+    public static final int LATENESS = 0;
+    public static final int OVERTIME = 1;
+
+    private final List<String> seriesNames;
+    private final Map<String, int[]> slots; // employee ID -> {series, rule}
+    private final AttendanceRules rules;
+    private final long firstEpochDay;
+    private final int dayCount;
+    private final int[] lateSums;
+    private final int[] overtimeSums;
+    private final int[] counts;
+
+    private AttendanceHeatmapData(List<String> seriesNames, Map<String, int[]> slots, AttendanceRules rules,
+                                  long firstEpochDay, int dayCount) {
+        this.seriesNames = seriesNames;
+        this.slots = slots;
+        this.rules = rules;
+        this.firstEpochDay = firstEpochDay;
+        this.dayCount = dayCount;
+        int cells = seriesNames.size() * dayCount;
+        this.lateSums = new int[cells];
+        this.overtimeSums = new int[cells];
+        this.counts = new int[cells];
+    }
+
+    /**
+     * One series per employee, in employee list order.
+     */
+    public static AttendanceHeatmapData byEmployee(List<Employee> employees, List<Attendance> records) {
+        AttendanceRules rules = AttendanceRules.current();
+        List<String> names = new ArrayList<>();
+        Map<String, int[]> slots = new TreeMap<>();
+        for (Employee employee : employees) {
+            slots.put(employee.getEmployeeId(), new int[] { names.size(), rules.ruleFor(employee) });
+            names.add(employee.getEmployeeId() + " " + employee.getLastName() + ", " + employee.getFirstName());
+        }
+        return build(names, slots, rules, records);
+    }
+
+    /**
+     * One series per immediate supervisor, sorted by name.
+     */
+    public static AttendanceHeatmapData byTeam(List<Employee> employees, List<Attendance> records) {
+        AttendanceRules rules = AttendanceRules.current();
+        TreeMap<String, Integer> teams = new TreeMap<>();
+        for (Employee employee : employees) {
+            teams.put(teamOf(employee), 0);
+        }
+        List<String> names = new ArrayList<>(teams.keySet());
+        for (int i = 0; i < names.size(); i++) {
+            teams.put(names.get(i), i);
+        }
+        Map<String, int[]> slots = new TreeMap<>();
+        for (Employee employee : employees) {
+            slots.put(employee.getEmployeeId(), new int[] { teams.get(teamOf(employee)), rules.ruleFor(employee) });
+        }
+        return build(names, slots, rules, records);
+    }
+
+    private static String teamOf(Employee employee) {
+        String supervisor = employee.getSupervisor();
+        return supervisor == null || supervisor.trim().isEmpty() || "N/A".equalsIgnoreCase(supervisor.trim())
+                ? "(No supervisor)" : supervisor.trim();
+    }
+
+    private static AttendanceHeatmapData build(List<String> names, Map<String, int[]> slots, AttendanceRules rules,
+                                               List<Attendance> records) {
+        AttendanceColumns columns = AttendanceColumns.of(records);
+        long first = Long.MAX_VALUE;
+        long last = Long.MIN_VALUE;
+        for (int i = 0; i < columns.size(); i++) {
+            long day = columns.getDate(i).toEpochDay();
+            first = Math.min(first, day);
+            last = Math.max(last, day);
+        }
+        if (columns.size() == 0) {
+            first = LocalDate.now().toEpochDay();
+            last = first;
+        }
+        AttendanceHeatmapData data = new AttendanceHeatmapData(names, slots, rules, first, (int) (last - first + 1));
+        for (int i = 0; i < columns.size(); i++) {
+            data.add(columns.getEmployeeId(i), columns.getDate(i), columns.timeIn[i], columns.timeOut[i], 1);
+        }
+        return data;
+    }
+
+    /**
+     * Adds (sign 1) or takes back (sign -1) one record.
+     * Returns the changed cell, or -1 when the record's employee has no series.
+     * Check {@link #covers} first; a date outside the grid needs a rebuild.
+     */
+    public int apply(Attendance record, int sign) {
+        return add(record.getEmployeeId(), record.getDate(),
+                PayrollKernel.minuteOfDay(record.getTimeIn()), PayrollKernel.minuteOfDay(record.getTimeOut()), sign);
+    }
+
+    private int add(String employeeId, LocalDate date, int in, int out, int sign) {
+        int[] slot = slots.get(employeeId);
+        if (slot == null) {
+            return -1;
+        }
+        int rule = slot[1];
+        int cell = slot[0] * dayCount + (int) (date.toEpochDay() - firstEpochDay);
+        lateSums[cell] += sign * PayrollKernel.lateMinutes(in, rules.shiftStart[rule], rules.graceMinutes[rule]);
+        overtimeSums[cell] += sign * PayrollKernel.overtimeMinutes(out - in, rules.regularMinutes[rule]);
+        counts[cell] += sign;
+        return cell;
+    }
+
+    public boolean covers(LocalDate date) {
+        long day = date.toEpochDay();
+        return day >= firstEpochDay && day < firstEpochDay + dayCount;
+    }
+
+    /**
+     * Average minutes of the metric for a series and day, or -1 when there are no records.
+     */
+    public int value(int metric, int series, int day) {
+        int cell = series * dayCount + day;
+        if (counts[cell] <= 0) {
+            return -1;
+        }
+        int sum = metric == LATENESS ? lateSums[cell] : overtimeSums[cell];
+        return sum / counts[cell];
+    }
+
+    public int getSeriesCount() { return seriesNames.size(); }
+    public String getSeriesName(int series) { return seriesNames.get(series); }
+    public int getDayCount() { return dayCount; }
+    public LocalDate getDate(int day) { return LocalDate.ofEpochDay(firstEpochDay + day); }
+    public int seriesOf(int cell) { return cell / dayCount; }
+    public int dayOf(int cell) { return cell % dayCount; }
+}
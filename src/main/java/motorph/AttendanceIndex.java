@@ -0,0 +1,254 @@
+package motorph;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+
+/**
+ * Row-id indexes over a list of attendance records, by employee, by month and
+ * by pay-calendar week within a month.
+ *
+ * Every index entry is a sorted int array of positions in the source list, so a
+ * combined filter is the intersection of a few sorted arrays instead of a scan
+ * of every record. Each month also has a {@link Period} with its row range and
+ * counts, so filter lists can be built without touching rows.
+ * The index is immutable; build a new one when the records change.
+ */
+public final class AttendanceIndex {
+
+    private static final int[] NO_ROWS = new int[0];
+    private static final int MAX_WEEK = 6;
+
+    /**
+     * Row range and record counts of one month.
+     */
+    public static final class Period {
+        private final YearMonth month;
+        private final int firstRow;
+        private final int lastRow;
+        private final int count;
+        private final int[] weekCounts;
+
+        private Period(YearMonth month, int[] rows, int[][] weekRows) {
+            this.month = month;
+            this.firstRow = rows[0];
+            this.lastRow = rows[rows.length - 1];
+            this.count = rows.length;
+            this.weekCounts = new int[MAX_WEEK + 1];
+            for (int week = 0; week <= MAX_WEEK; week++) {
+                weekCounts[week] = weekRows[week].length;
+            }
+        }
+
+        public YearMonth getMonth() { return month; }
+        public int getFirstRow() { return firstRow; }
+        public int getLastRow() { return lastRow; }
+        public int getCount() { return count; }
+
+        public int getWeekCount(int week) {
+            return week < 0 || week > MAX_WEEK ? 0 : weekCounts[week];
+        }
+
+        /**
+         * Whether the month's rows are exactly firstRow..lastRow, as when the file is in date order.
+         * Saves replace a row in place or append one, so this holds across saves as new punches come in.
+         */
+        public boolean isContiguous() {
+            return lastRow - firstRow + 1 == count;
+        }
+    }
+
+    private final List<Attendance> records;
+    private final int size;
+    private final Map<String, int[]> byEmployee;
+    private final TreeMap<YearMonth, int[]> byMonth;
+    private final Map<YearMonth, int[][]> byWeek; // [week] -> rows, weeks 0-6 as in PayPeriodCalendar
+    private final TreeMap<YearMonth, Period> periods;
+
+    private AttendanceIndex(List<Attendance> records, int size, Map<String, int[]> byEmployee, TreeMap<YearMonth, int[]> byMonth,
+                            Map<YearMonth, int[][]> byWeek) {
+        this.records = records;
+        this.size = size;
+        this.byEmployee = byEmployee;
+        this.byMonth = byMonth;
+        this.byWeek = byWeek;
+        this.periods = new TreeMap<>();
+        for (Map.Entry<YearMonth, int[]> entry : byMonth.entrySet()) {
+            periods.put(entry.getKey(), new Period(entry.getKey(), entry.getValue(), byWeek.get(entry.getKey())));
+        }
+    }
+
+    /**
+     * Builds the indexes in one pass over the records.
+     */
+    public static AttendanceIndex build(List<Attendance> records) {
+        Map<String, IntList> employees = new HashMap<>();
+        Map<YearMonth, IntList> months = new HashMap<>();
+        Map<YearMonth, IntList[]> weeks = new HashMap<>();
+        for (int row = 0; row < records.size(); row++) {
+            Attendance record = records.get(row);
+            LocalDate date = record.getDate();
+            YearMonth month = YearMonth.from(date);
+            employees.computeIfAbsent(record.getEmployeeId(), k -> new IntList()).add(row);
+            months.computeIfAbsent(month, k -> new IntList()).add(row);
+            IntList[] monthWeeks = weeks.computeIfAbsent(month, k -> new IntList[MAX_WEEK + 1]);
+            int week = PayPeriodCalendar.weekOfMonth(date);
+            if (monthWeeks[week] == null) {
+                monthWeeks[week] = new IntList();
+            }
+            monthWeeks[week].add(row);
+        }
+
+        Map<String, int[]> byEmployee = new HashMap<>();
+        employees.forEach((id, rows) -> byEmployee.put(id, rows.toArray()));
+        TreeMap<YearMonth, int[]> byMonth = new TreeMap<>();
+        months.forEach((month, rows) -> byMonth.put(month, rows.toArray()));
+        Map<YearMonth, int[][]> byWeek = new HashMap<>();
+        weeks.forEach((month, lists) -> {
+            int[][] rows = new int[MAX_WEEK + 1][];
+            for (int week = 0; week <= MAX_WEEK; week++) {
+                rows[week] = lists[week] == null ? NO_ROWS : lists[week].toArray();
+            }
+            byWeek.put(month, rows);
+        });
+        return new AttendanceIndex(records, records.size(), byEmployee, byMonth, byWeek);
+    }
+
+    /**
+     * The records the row ids refer to.
+     */
+    public List<Attendance> getRecords() {
+        return records;
+    }
+
+    /**
+     * Number of records indexed.
+     */
+    public int size() {
+        return size;
+    }
+
+    public int[] rowsForEmployee(String employeeId) {
+        return byEmployee.getOrDefault(employeeId, NO_ROWS);
+    }
+
+    public int[] rowsForMonth(YearMonth month) {
+        return byMonth.getOrDefault(month, NO_ROWS);
+    }
+
+    public int[] rowsForWeek(YearMonth month, int week) {
+        int[][] weeks = byWeek.get(month);
+        return weeks == null || week < 0 || week > MAX_WEEK ? NO_ROWS : weeks[week];
+    }
+
+    public List<String> getEmployeeIds() {
+        return new ArrayList<>(byEmployee.keySet());
+    }
+
+    /**
+     * Row ranges and counts of every month with records, in order.
+     */
+    public List<Period> getPeriods() {
+        return new ArrayList<>(periods.values());
+    }
+
+    public Period getPeriod(YearMonth month) {
+        return periods.get(month);
+    }
+
+    /**
+     * Rows of the month among the given sorted rows. When the month's rows are
+     * contiguous this is two binary searches instead of an intersection.
+     */
+    public int[] restrictToMonth(int[] rows, YearMonth month) {
+        Period period = periods.get(month);
+        if (period == null) {
+            return NO_ROWS;
+        }
+        if (!period.isContiguous()) {
+            return SortedInts.intersect(rows, byMonth.get(month));
+        }
+        int from = Arrays.binarySearch(rows, period.getFirstRow());
+        int to = Arrays.binarySearch(rows, period.getLastRow());
+        from = from >= 0 ? from : -from - 1;
+        to = to >= 0 ? to + 1 : -to - 1;
+        return Arrays.copyOfRange(rows, from, to);
+    }
+
+    /**
+     * Weeks of the month that have records, in order.
+     */
+    public List<Integer> getWeeks(YearMonth month) {
+        List<Integer> weeks = new ArrayList<>();
+        int[][] rows = byWeek.get(month);
+        if (rows != null) {
+            for (int week = 0; week <= MAX_WEEK; week++) {
+                if (rows[week].length > 0) {
+                    weeks.add(week);
+                }
+            }
+        }
+        return weeks;
+    }
+
+    /**
+     * The newest records, latest date first and by employee ID within a date.
+     * Months are visited newest first and kept in a heap of at most limit rows,
+     * so once a month fills the heap the older months are never looked at.
+     */
+    public List<Attendance> mostRecent(int limit) {
+        List<Attendance> recent = new ArrayList<>();
+        if (limit <= 0) {
+            return recent;
+        }
+        Comparator<Integer> newestFirst = (a, b) -> compareNewestFirst(records.get(a), records.get(b));
+        // Root is the oldest row kept, the first one to drop
+        PriorityQueue<Integer> heap = new PriorityQueue<>(limit + 1, newestFirst.reversed());
+        for (int[] rows : byMonth.descendingMap().values()) {
+            if (heap.size() >= limit) {
+                break; // Every row of an older month is older than the rows kept
+            }
+            for (int row : rows) {
+                heap.offer(row);
+                if (heap.size() > limit) {
+                    heap.poll();
+                }
+            }
+        }
+        while (!heap.isEmpty()) {
+            recent.add(records.get(heap.poll()));
+        }
+        Collections.reverse(recent);
+        return recent;
+    }
+
+    private static int compareNewestFirst(Attendance a, Attendance b) {
+        int byDate = b.getDate().compareTo(a.getDate());
+        return byDate != 0 ? byDate : a.getEmployeeId().compareTo(b.getEmployeeId());
+    }
+
+    // Growable int array, to avoid boxing while building
+    private static final class IntList {
+        private int[] values = new int[16];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
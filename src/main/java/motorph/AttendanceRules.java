@@ -0,0 +1,203 @@
+package motorph;
+
+import com.opencsv.CSVReader;
+import com.opencsv.exceptions.CsvValidationException;
+
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Per-position attendance rules: shift start and end, grace period, regular
+ * hours per day, undertime deduction and night differential window.
+ *
+ * Rules are read from data/attendance-rules.csv, one row per position, with
+ * "*" as the default for positions that are not listed. They are compiled
+ * into parallel int arrays; a rule is resolved once per employee and then
+ * evaluating a punch is plain arithmetic on those ints.
+ *
+ * Minutes in the night window are always recorded; they are only paid extra
+ * where a row sets a Night Premium %. The default pays none, so pay matches
+ * the fixed 8:00 to 17:00 shift the calculator used before this file existed.
+ *
+ * A shift must end after it starts on the same day. Attendance rows carry one
+ * date and a log out after the log in, so a shift that crosses midnight is
+ * rejected when the file is loaded. The night window may cross midnight.
+ */
+public final class AttendanceRules {
+
+    public static final int DEFAULT_RULE = 0;
+
+    private static final String RULES_FILE = FileHandler.DATA_FOLDER + File.separator + "attendance-rules.csv";
+    private static final String DEFAULT_POSITION = "*";
+    private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("H:mm");
+
+    // Defaults, used when the file is missing or has no "*" row
+    private static final int DEFAULT_SHIFT_START = 8 * 60;   // 8:00 AM
+    private static final int DEFAULT_SHIFT_END = 17 * 60;    // 5:00 PM
+    private static final int DEFAULT_GRACE_MINUTES = 10;
+    private static final int DEFAULT_REGULAR_HOURS = 8;
+    private static final int DEFAULT_NIGHT_START = 22 * 60;  // 10:00 PM
+    private static final int DEFAULT_NIGHT_END = 6 * 60;     // 6:00 AM
+    private static final int DEFAULT_NIGHT_PREMIUM = 0;      // Night minutes are recorded but not paid extra
+
+    private static volatile AttendanceRules current;
+
+    // Compiled rules, indexed by rule number; all times are minutes of the day
+    final int[] shiftStart;
+    final int[] shiftEnd;
+    final int[] graceMinutes;
+    final int[] regularMinutes;
+    final int[] deductUndertime;  // 1 to deduct undertime, 0 to only record it
+    final int[] nightStart;
+    final int[] nightEnd;
+    final int[] nightPremium;     // percent of the hourly rate
+    private final Map<String, Integer> ruleByPosition;
+    private final int version;
+
+    private AttendanceRules(List<int[]> rows, Map<String, Integer> ruleByPosition) {
+        int size = rows.size();
+        shiftStart = new int[size];
+        shiftEnd = new int[size];
+        graceMinutes = new int[size];
+        regularMinutes = new int[size];
+        deductUndertime = new int[size];
+        nightStart = new int[size];
+        nightEnd = new int[size];
+        nightPremium = new int[size];
+        int hash = 1;
+        for (int i = 0; i < size; i++) {
+            int[] row = rows.get(i);
+            shiftStart[i] = row[0];
+            shiftEnd[i] = row[1];
+            graceMinutes[i] = row[2];
+            regularMinutes[i] = row[3];
+            deductUndertime[i] = row[4];
+            nightStart[i] = row[5];
+            nightEnd[i] = row[6];
+            nightPremium[i] = row[7];
+            hash = 31 * hash + Arrays.hashCode(row);
+        }
+        this.ruleByPosition = ruleByPosition;
+        this.version = Objects.hash(hash, ruleByPosition);
+    }
+
+    /**
+     * Returns the compiled rules, loading them on first use.
+     */
+    public static AttendanceRules current() {
+        AttendanceRules rules = current;
+        if (rules == null) {
+            synchronized (AttendanceRules.class) {
+                if (current == null) {
+                    current = load();
+                }
+                rules = current;
+            }
+        }
+        return rules;
+    }
+
+    /**
+     * Re-reads and recompiles the rules file, e.g. after it has been edited.
+     */
+    public static synchronized void reload() {
+        current = load();
+    }
+
+    /**
+     * Resolves the rule for an employee's position. Call once per employee, not per punch.
+     */
+    public int ruleFor(Employee employee) {
+        String position = employee.getPosition();
+        if (position == null) {
+            return DEFAULT_RULE;
+        }
+        Integer rule = ruleByPosition.get(position.trim().toLowerCase());
+        return rule != null ? rule : DEFAULT_RULE;
+    }
+
+    /**
+     * Changes whenever the rules change; part of the payroll rate-table version.
+     */
+    public int getVersion() {
+        return version;
+    }
+
+    public int getShiftStart(int rule) { return shiftStart[rule]; }
+    public int getShiftEnd(int rule) { return shiftEnd[rule]; }
+    public int getGraceMinutes(int rule) { return graceMinutes[rule]; }
+    public int getRegularMinutes(int rule) { return regularMinutes[rule]; }
+    public boolean isUndertimeDeducted(int rule) { return deductUndertime[rule] == 1; }
+    public int getNightStart(int rule) { return nightStart[rule]; }
+    public int getNightEnd(int rule) { return nightEnd[rule]; }
+    public int getNightPremium(int rule) { return nightPremium[rule]; }
+
+    private static AttendanceRules load() {
+        List<int[]> rows = new ArrayList<>();
+        Map<String, Integer> ruleByPosition = new HashMap<>();
+        rows.add(new int[] { DEFAULT_SHIFT_START, DEFAULT_SHIFT_END, DEFAULT_GRACE_MINUTES,
+                DEFAULT_REGULAR_HOURS * PayrollKernel.MINUTES_PER_HOUR, 0,
+                DEFAULT_NIGHT_START, DEFAULT_NIGHT_END, DEFAULT_NIGHT_PREMIUM });
+
+        File file = new File(RULES_FILE);
+        if (!file.exists()) {
+            return new AttendanceRules(rows, ruleByPosition);
+        }
+        try (CSVReader reader = new CSVReader(new FileReader(file))) {
+            String[] parts;
+            reader.readNext(); // Skip header
+            while ((parts = reader.readNext()) != null) {
+                String line = String.join(",", parts);
+                if (line.trim().isEmpty()) {
+                    continue;
+                }
+                if (parts.length < 9) {
+                    System.err.println("Skipping malformed line in " + RULES_FILE + ": " + line);
+                    continue;
+                }
+                try {
+                    int[] row = {
+                            minuteOfDay(parts[1]),
+                            minuteOfDay(parts[2]),
+                            Integer.parseInt(parts[3].trim()),
+                            Integer.parseInt(parts[4].trim()) * PayrollKernel.MINUTES_PER_HOUR,
+                            parts[5].trim().equalsIgnoreCase("Y") ? 1 : 0,
+                            minuteOfDay(parts[6]),
+                            minuteOfDay(parts[7]),
+                            Integer.parseInt(parts[8].trim())
+                    };
+                    if (row[1] <= row[0]) {
+                        System.err.println("Skipping line in " + RULES_FILE + ", shift must end after it starts on the same day: " + line);
+                        continue;
+                    }
+                    String position = parts[0].trim();
+                    if (position.equals(DEFAULT_POSITION)) {
+                        rows.set(DEFAULT_RULE, row);
+                    } else {
+                        ruleByPosition.put(position.toLowerCase(), rows.size());
+                        rows.add(row);
+                    }
+                } catch (NumberFormatException | DateTimeParseException e) {
+                    System.err.println("Skipping malformed line in " + RULES_FILE + ": " + line);
+                }
+            }
+        } catch (IOException | CsvValidationException e) {
+            System.err.println("Error reading attendance rules: " + e.getMessage());
+        }
+        return new AttendanceRules(rows, ruleByPosition);
+    }
+
+    private static int minuteOfDay(String text) {
+        return PayrollKernel.minuteOfDay(LocalTime.parse(text.trim(), TIME_FORMATTER));
+    }
+}
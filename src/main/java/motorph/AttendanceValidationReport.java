@@ -0,0 +1,61 @@
+package motorph;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Outcome of validating attendance.csv while it is read: how many rows were
+ * accepted and which rows were rejected, grouped by anomaly type.
+ */
+public class AttendanceValidationReport {
+    private final int acceptedRows;
+    private final List<AttendanceAnomaly> anomalies;
+    private final Map<AttendanceAnomaly.Type, Integer> counts = new EnumMap<>(AttendanceAnomaly.Type.class);
+
+    public AttendanceValidationReport(int acceptedRows, List<AttendanceAnomaly> anomalies) {
+        this.acceptedRows = acceptedRows;
+        this.anomalies = Collections.unmodifiableList(new ArrayList<>(anomalies));
+        for (AttendanceAnomaly anomaly : anomalies) {
+            counts.merge(anomaly.getType(), 1, Integer::sum);
+        }
+    }
+
+    public int getAcceptedRows() { return acceptedRows; }
+    public List<AttendanceAnomaly> getAnomalies() { return anomalies; }
+
+    public int getRejectedRows() {
+        return anomalies.size();
+    }
+
+    public int getCount(AttendanceAnomaly.Type type) {
+        return counts.getOrDefault(type, 0);
+    }
+
+    public boolean isClean() {
+        return anomalies.isEmpty();
+    }
+
+    /**
+     * One-line summary, e.g. "1200 accepted, 3 rejected (DUPLICATE_DAY: 2, MISSING_PUNCH: 1)".
+     */
+    public String getSummary() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(acceptedRows).append(" accepted, ").append(anomalies.size()).append(" rejected");
+        if (!counts.isEmpty()) {
+            sb.append(" (");
+            boolean first = true;
+            for (Map.Entry<AttendanceAnomaly.Type, Integer> entry : counts.entrySet()) {
+                if (!first) {
+                    sb.append(", ");
+                }
+                sb.append(entry.getKey()).append(": ").append(entry.getValue());
+                first = false;
+            }
+            sb.append(")");
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,212 @@
+package motorph;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Running totals behind the dashboard tiles: headcount by status, attendance
+ * today, late arrivals this week, overtime and estimated payroll cost for the
+ * month to date.
+ *
+ * The totals are built with one pass over the data and then kept up to date
+ * from change events: a changed record takes back what the previous version
+ * added and adds the new one, so no event triggers a full scan. FileHandler
+ * reports only records that pass validation, so the totals count the same
+ * records as a fresh read. Only the current month's records are kept, to
+ * re-price them when an employee's rate or position changes.
+ */
+public class DashboardMetrics implements DataChangeListener {
+
+    private final LocalDate today;
+    private final YearMonth month;
+    private final int week;
+    private final AttendanceRules rules = AttendanceRules.current();
+
+    private final Map<String, Employee> employeesById = new HashMap<>();
+    private final Map<String, Integer> headcountByStatus = new TreeMap<>();
+    private final Map<String, Integer> recordsToday = new HashMap<>(); // employee ID -> records dated today
+    private final Map<String, List<Attendance>> monthRecords = new HashMap<>(); // employee ID -> month to date
+    private int lateThisWeek;
+    private int overtimeMinutesMonthToDate;
+    private long payrollCostMonthToDate; // centavos
+
+    public DashboardMetrics(List<Employee> employees, List<Attendance> attendance, LocalDate today) {
+        this.today = today;
+        this.month = YearMonth.from(today);
+        this.week = PayPeriodCalendar.weekOfMonth(today);
+        for (Employee employee : employees) {
+            addEmployee(employee);
+        }
+        for (Attendance record : attendance) {
+            addRecord(record);
+        }
+    }
+
+    /**
+     * The day "today" refers to; build new metrics once it has passed.
+     */
+    public LocalDate getDate() {
+        return today;
+    }
+
+    public synchronized int getHeadcount() {
+        return employeesById.size();
+    }
+
+    /**
+     * Headcount per employment status, e.g. Regular and Probationary, by status name.
+     */
+    public synchronized Map<String, Integer> getHeadcountByStatus() {
+        return new LinkedHashMap<>(headcountByStatus);
+    }
+
+    /**
+     * Employees with at least one attendance record dated today.
+     */
+    public synchronized int getPresentToday() {
+        return recordsToday.size();
+    }
+
+    /**
+     * Share of employees present today, 0-100.
+     */
+    public synchronized double getAttendanceRateToday() {
+        return employeesById.isEmpty() ? 0 : recordsToday.size() * 100.0 / employeesById.size();
+    }
+
+    /**
+     * Time-ins after the grace period in today's pay-calendar week.
+     */
+    public synchronized int getLateArrivalsThisWeek() {
+        return lateThisWeek;
+    }
+
+    public synchronized int getOvertimeMinutesMonthToDate() {
+        return overtimeMinutesMonthToDate;
+    }
+
+    /**
+     * Regular, overtime and holiday pay earned so far this month, in centavos.
+     * Allowances, night differential and deductions are left out.
+     */
+    public synchronized long getPayrollCostMonthToDate() {
+        return payrollCostMonthToDate;
+    }
+
+    @Override
+    public synchronized void employeeChanged(Employee previous, Employee current) {
+        String id = previous != null ? previous.getEmployeeId() : current.getEmployeeId();
+        // Take the employee's month out at the old rate and position, then put it back at the new ones
+        List<Attendance> records = monthRecords.getOrDefault(id, new ArrayList<>());
+        for (Attendance record : records) {
+            count(record, -1);
+        }
+        if (previous != null) {
+            removeEmployee(previous);
+        }
+        if (current != null) {
+            addEmployee(current);
+        }
+        for (Attendance record : records) {
+            count(record, 1);
+        }
+    }
+
+    @Override
+    public synchronized void attendanceChanged(Attendance previous, Attendance current) {
+        if (previous != null) {
+            removeRecord(previous);
+        }
+        if (current != null) {
+            addRecord(current);
+        }
+    }
+
+    private void addEmployee(Employee employee) {
+        employeesById.put(employee.getEmployeeId(), employee);
+        headcountByStatus.merge(statusOf(employee), 1, Integer::sum);
+    }
+
+    private void removeEmployee(Employee employee) {
+        if (employeesById.remove(employee.getEmployeeId()) != null) {
+            headcountByStatus.computeIfPresent(statusOf(employee), (status, count) -> count > 1 ? count - 1 : null);
+        }
+    }
+
+    private static String statusOf(Employee employee) {
+        String status = employee.getStatus();
+        return status == null || status.trim().isEmpty() ? "Unknown" : status.trim();
+    }
+
+    private void addRecord(Attendance record) {
+        if (!isMonthToDate(record.getDate())) {
+            return;
+        }
+        monthRecords.computeIfAbsent(record.getEmployeeId(), id -> new ArrayList<>()).add(record);
+        count(record, 1);
+    }
+
+    private void removeRecord(Attendance record) {
+        if (!isMonthToDate(record.getDate())) {
+            return;
+        }
+        List<Attendance> records = monthRecords.get(record.getEmployeeId());
+        if (records == null) {
+            return;
+        }
+        // Records are matched by date; there is at most one per employee and day
+        for (int i = 0; i < records.size(); i++) {
+            if (records.get(i).getDate().equals(record.getDate())) {
+                count(records.remove(i), -1);
+                break;
+            }
+        }
+    }
+
+    private boolean isMonthToDate(LocalDate date) {
+        return !date.isAfter(today) && YearMonth.from(date).equals(month);
+    }
+
+    /*
+    Adds (sign 1) or takes back (sign -1) one month-to-date record's share of every total.
+    Uses the same kernel arithmetic as PayrollCalculator, so the cost matches the
+    regular, overtime and holiday lines of the payslips.
+    */
+    private void count(Attendance record, int sign) {
+        LocalDate date = record.getDate();
+        Employee employee = employeesById.get(record.getEmployeeId());
+        int rule = employee != null ? rules.ruleFor(employee) : AttendanceRules.DEFAULT_RULE;
+        long hourlyRate = employee != null ? PayrollKernel.toCentavos(employee.getHourlyRate()) : 0;
+
+        int in = PayrollKernel.minuteOfDay(record.getTimeIn());
+        int out = PayrollKernel.minuteOfDay(record.getTimeOut());
+        int worked = Math.max(0, out - in);
+        int regular = PayrollKernel.regularMinutes(worked, rules.regularMinutes[rule]);
+        int overtime = PayrollKernel.overtimeMinutes(worked, rules.regularMinutes[rule]);
+        int overtimeMultiplier = PayPeriodCalendar.isRestDay(date)
+                ? PayrollCalculator.REST_DAY_OT_MULTIPLIER : PayrollCalculator.REGULAR_DAY_OT_MULTIPLIER;
+        long cost = PayrollKernel.pay(regular, hourlyRate, 100) + PayrollKernel.pay(overtime, hourlyRate, overtimeMultiplier);
+        int holiday = HolidayCalendar.holidayType(date);
+        if (holiday == HolidayCalendar.REGULAR) {
+            cost += PayrollKernel.pay(worked, hourlyRate, PayrollCalculator.REGULAR_HOLIDAY_PREMIUM);
+        } else if (holiday == HolidayCalendar.SPECIAL) {
+            cost += PayrollKernel.pay(worked, hourlyRate, PayrollCalculator.SPECIAL_HOLIDAY_PREMIUM);
+        }
+
+        overtimeMinutesMonthToDate += sign * overtime;
+        payrollCostMonthToDate += sign * cost;
+        if (PayPeriodCalendar.weekOfMonth(date) == week
+                && PayrollKernel.lateMinutes(in, rules.shiftStart[rule], rules.graceMinutes[rule]) > 0) {
+            lateThisWeek += sign;
+        }
+        if (date.equals(today)) {
+            recordsToday.merge(record.getEmployeeId(), sign, (count, change) -> count + change > 0 ? count + change : null);
+        }
+    }
+}
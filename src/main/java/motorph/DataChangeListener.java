@@ -0,0 +1,20 @@
+package motorph;
+
+/**
+ * Receives notifications whenever FileHandler writes a change to the
+ * employee or attendance data files.
+ * Either argument may be null: a null previous value means the record was
+ * added, a null current value means it was deleted.
+ */
+public interface DataChangeListener {
+
+    /**
+     * Called after an employee record has been added, updated or deleted.
+     */
+    void employeeChanged(Employee previous, Employee current);
+
+    /**
+     * Called after an attendance record has been added, updated or deleted.
+     */
+    void attendanceChanged(Attendance previous, Attendance current);
+}
@@ -48,6 +48,31 @@ public class Employee {
      */
     public Employee() {}
 
+    /**
+     * Copy constructor, used when a calculation needs to adjust an employee without touching the original
+     */
+    public Employee(Employee other) {
+        this.employeeId = other.employeeId;
+        this.lastName = other.lastName;
+        this.firstName = other.firstName;
+        this.birthday = other.birthday;
+        this.address = other.address;
+        this.phoneNumber = other.phoneNumber;
+        this.sssNumber = other.sssNumber;
+        this.philhealthNumber = other.philhealthNumber;
+        this.tinNumber = other.tinNumber;
+        this.pagibigNumber = other.pagibigNumber;
+        this.status = other.status;
+        this.position = other.position;
+        this.supervisor = other.supervisor;
+        this.basicSalary = other.basicSalary;
+        this.riceSubsidy = other.riceSubsidy;
+        this.phoneAllowance = other.phoneAllowance;
+        this.clothingAllowance = other.clothingAllowance;
+        this.grossRate = other.grossRate;
+        this.hourlyRate = other.hourlyRate;
+    }
+
     /**
      * Constructs an Employee object using a map of string values.
      * Useful when creating employees from user input or CSV data.
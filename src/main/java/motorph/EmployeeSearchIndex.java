@@ -0,0 +1,147 @@
+package motorph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Substring search over employee names, positions and government IDs, for
+ * search-as-you-type.
+ *
+ * Each word of the names and position, and each ID with its dashes removed,
+ * is broken into its n-grams of up to N characters. Every n-gram keeps the
+ * sorted positions of the employees that contain it. A query word of up to N
+ * characters is a single lookup. A longer word intersects the lists of its
+ * n-grams and then checks the few remaining employees. A query of several
+ * words ("acc sup") matches employees that contain every word.
+ */
+public final class EmployeeSearchIndex {
+
+    private static final int N = 3;
+    private static final int[] NO_MATCHES = new int[0];
+    // Letters and digits of any script, so "Peña" keeps its "ñ"
+    private static final Pattern WORD_SEPARATORS = Pattern.compile("[^\\p{Alnum}]+", Pattern.UNICODE_CHARACTER_CLASS);
+
+    private final int size;
+    private final String[][] words; // searchable words per employee, lowercased
+    private final Map<String, Postings> grams = new HashMap<>();
+
+    // Sorted employee positions for one n-gram
+    private static final class Postings {
+        private int[] positions = new int[4];
+        private int size;
+
+        void add(int position) {
+            // Positions arrive in order, so a repeat can only be the last one
+            if (size > 0 && positions[size - 1] == position) {
+                return;
+            }
+            if (size == positions.length) {
+                positions = Arrays.copyOf(positions, size * 2);
+            }
+            positions[size++] = position;
+        }
+    }
+
+    public EmployeeSearchIndex(List<Employee> employees) {
+        size = employees.size();
+        words = new String[size][];
+        for (int position = 0; position < size; position++) {
+            words[position] = wordsOf(employees.get(position));
+            for (String word : words[position]) {
+                for (int start = 0; start < word.length(); start++) {
+                    for (int end = start + 1; end <= Math.min(word.length(), start + N); end++) {
+                        grams.computeIfAbsent(word.substring(start, end), k -> new Postings()).add(position);
+                    }
+                }
+            }
+        }
+    }
+
+    private static String[] wordsOf(Employee employee) {
+        List<String> result = new ArrayList<>();
+        for (String text : new String[] { employee.getLastName(), employee.getFirstName(), employee.getPosition() }) {
+            if (text != null) {
+                for (String word : WORD_SEPARATORS.split(text.toLowerCase())) {
+                    if (!word.isEmpty()) {
+                        result.add(word);
+                    }
+                }
+            }
+        }
+        // IDs are searched as one run of digits, so "4450" finds "44-4506057-3"
+        for (String id : new String[] { employee.getEmployeeId(), employee.getSssNumber(),
+                employee.getPhilhealthNumber(), employee.getTinNumber(), employee.getPagibigNumber() }) {
+            String digits = normalize(id);
+            if (!digits.isEmpty()) {
+                result.add(digits);
+            }
+        }
+        return result.toArray(new String[0]);
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : WORD_SEPARATORS.matcher(text.toLowerCase()).replaceAll("");
+    }
+
+    /**
+     * Positions of the employees containing every word of the query, in list
+     * order, or null when the query has no words (everyone matches).
+     */
+    public int[] search(String query) {
+        int[] result = null;
+        for (String token : query == null ? new String[0] : query.trim().split("\\s+")) {
+            String word = normalize(token);
+            if (word.isEmpty()) {
+                continue;
+            }
+            int[] matches = lookup(word);
+            result = result == null ? matches : SortedInts.intersect(result, matches);
+            if (result.length == 0) {
+                break;
+            }
+        }
+        return result;
+    }
+
+    private int[] lookup(String word) {
+        if (word.length() <= N) {
+            Postings postings = grams.get(word);
+            return postings == null ? NO_MATCHES : Arrays.copyOf(postings.positions, postings.size);
+        }
+        // Employees holding every n-gram of the word; most of them contain it
+        int[] candidates = null;
+        for (int start = 0; start + N <= word.length(); start++) {
+            Postings postings = grams.get(word.substring(start, start + N));
+            if (postings == null) {
+                return NO_MATCHES;
+            }
+            int[] positions = Arrays.copyOf(postings.positions, postings.size);
+            candidates = candidates == null ? positions : SortedInts.intersect(candidates, positions);
+        }
+        int[] result = new int[candidates.length];
+        int n = 0;
+        for (int position : candidates) {
+            if (contains(position, word)) {
+                result[n++] = position;
+            }
+        }
+        return Arrays.copyOf(result, n);
+    }
+
+    private boolean contains(int position, String word) {
+        for (String candidate : words[position]) {
+            if (candidate.contains(word)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public int size() {
+        return size;
+    }
+}
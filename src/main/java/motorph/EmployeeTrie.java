@@ -0,0 +1,118 @@
+package motorph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Prefix search over employee numbers and names, for type-ahead pickers.
+ *
+ * Every employee number and every word of the first and last name is inserted
+ * into a character trie. Each node keeps the sorted positions of the employees
+ * whose words pass through it, so a prefix lookup is a walk down the trie with
+ * no scan of the employees. A query of several words ("gar man") matches
+ * employees that have a word starting with each of them.
+ */
+public final class EmployeeTrie {
+
+    private static final int[] NO_MATCHES = new int[0];
+
+    private final List<Employee> employees;
+    private final Map<String, Integer> positions = new HashMap<>(); // employee ID -> position
+    private final Node root = new Node();
+
+    private static final class Node {
+        private final Map<Character, Node> children = new HashMap<>(4);
+        private int[] matches = NO_MATCHES;
+        private int size;
+
+        void add(int position) {
+            // Positions arrive in order, so a repeat can only be the last one
+            if (size > 0 && matches[size - 1] == position) {
+                return;
+            }
+            if (size == matches.length) {
+                matches = Arrays.copyOf(matches, Math.max(4, size * 2));
+            }
+            matches[size++] = position;
+        }
+    }
+
+    public EmployeeTrie(List<Employee> employees) {
+        this.employees = new ArrayList<>(employees);
+        for (int position = 0; position < this.employees.size(); position++) {
+            Employee employee = this.employees.get(position);
+            positions.put(employee.getEmployeeId(), position);
+            insert(employee.getEmployeeId(), position);
+            for (String word : words(employee.getLastName() + " " + employee.getFirstName())) {
+                insert(word, position);
+            }
+        }
+    }
+
+    private void insert(String word, int position) {
+        Node node = root;
+        for (char c : word.toLowerCase().toCharArray()) {
+            node = node.children.computeIfAbsent(c, k -> new Node());
+            node.add(position);
+        }
+    }
+
+    private static String[] words(String text) {
+        String trimmed = text == null ? "" : text.trim().toLowerCase();
+        return trimmed.isEmpty() ? new String[0] : trimmed.split("[\\s,]+");
+    }
+
+    /**
+     * Positions of the employees matching every word of the query, in list order.
+     * An empty query matches everyone.
+     */
+    public int[] search(String query) {
+        String[] words = words(query);
+        if (words.length == 0) {
+            int[] all = new int[employees.size()];
+            for (int i = 0; i < all.length; i++) {
+                all[i] = i;
+            }
+            return all;
+        }
+        int[] result = null;
+        for (String word : words) {
+            int[] matches = lookup(word);
+            result = result == null ? matches : SortedInts.intersect(result, matches);
+            if (result.length == 0) {
+                break;
+            }
+        }
+        return result;
+    }
+
+    private int[] lookup(String prefix) {
+        Node node = root;
+        for (char c : prefix.toCharArray()) {
+            node = node.children.get(c);
+            if (node == null) {
+                return NO_MATCHES;
+            }
+        }
+        return Arrays.copyOf(node.matches, node.size);
+    }
+
+    public Employee get(int position) {
+        return employees.get(position);
+    }
+
+    public int size() {
+        return employees.size();
+    }
+
+    /**
+     * Position of an employee number, or -1 if it is not in the list.
+     */
+    public int positionOf(String employeeId) {
+        Integer position = positions.get(employeeId);
+        return position != null ? position : -1;
+    }
+}
@@ -12,13 +12,15 @@ import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 import java.util.*; 
+import java.util.concurrent.CopyOnWriteArrayList;
 // import java.util.stream.*; // Not explicitly used now, but good to have for future stream operations
 
 public class FileHandler {
 
-    private static final String DATA_FOLDER = "data";
+    public static final String DATA_FOLDER = "data";
     private static final String EMPLOYEE_FILE = DATA_FOLDER + File.separator + "employees.csv";
     private static final String ATTENDANCE_FILE = DATA_FOLDER + File.separator + "attendance.csv";
+    private static final String QUARANTINE_FILE = DATA_FOLDER + File.separator + "attendance-quarantine.csv";
     private static final List<DateTimeFormatter> TIME_FORMATTERS = Arrays.asList(
         DateTimeFormatter.ofPattern("HH:mm"), // For two-digit hour format like "08:05"
         DateTimeFormatter.ofPattern("H:mm")   // For single-digit hour format like "8:05"
@@ -29,6 +31,17 @@ public class FileHandler {
     public static final String ATTENDANCE_HEADER = "Employee #,Last Name,First Name,Date,Log In,Log Out";
     private static final DateTimeFormatter EMPLOYEE_BIRTHDAY_FORMATTER = DateTimeFormatter.ofPattern("MM/dd/yyyy");
 
+    // Listeners are shared by every FileHandler instance because they all write the same files
+    private static final List<DataChangeListener> LISTENERS = new CopyOnWriteArrayList<>();
+
+    // Attendance validation results, shared like the listeners
+    private static final String QUARANTINE_HEADER = "Anomaly,Line,Detail,Row";
+    private static volatile AttendanceValidationReport lastValidationReport;
+    private static final Object QUARANTINE_LOCK = new Object(); // Guards quarantinedRows and the quarantine file
+    private static Set<String> quarantinedRows; // "type|row" already written to the quarantine file
+    // Duplicate days are tracked as bits counted from this day, the first one a record may have
+    private static final long FIRST_DAY = LocalDate.of(1900, 1, 1).toEpochDay();
+
 
     public FileHandler() {
         try {
@@ -59,6 +72,27 @@ public class FileHandler {
         }
     }
 
+    //Registers a listener that is told about every employee or attendance change written by any FileHandler
+    public static void addDataChangeListener(DataChangeListener listener) {
+        LISTENERS.add(listener);
+    }
+
+    public static void removeDataChangeListener(DataChangeListener listener) {
+        LISTENERS.remove(listener);
+    }
+
+    private static void fireEmployeeChanged(Employee previous, Employee current) {
+        for (DataChangeListener listener : LISTENERS) {
+            listener.employeeChanged(previous, current);
+        }
+    }
+
+    private static void fireAttendanceChanged(Attendance previous, Attendance current) {
+        for (DataChangeListener listener : LISTENERS) {
+            listener.attendanceChanged(previous, current);
+        }
+    }
+
     //Reads all employee data from the CSV file
     public List<Employee> readEmployees() {
         List<Employee> employees = new ArrayList<>();
@@ -105,6 +139,28 @@ public class FileHandler {
 
     //Saves all employees to the CSV file, overwriting existing content
     public void saveAllEmployees(List<Employee> employees) {
+        if (LISTENERS.isEmpty()) {
+            writeEmployees(employees);
+            return;
+        }
+        //Compare against what is on disk so listeners only hear about employees that actually changed
+        Map<String, Employee> previousById = new HashMap<>();
+        for (Employee emp : readEmployees()) {
+            previousById.put(emp.getEmployeeId(), emp);
+        }
+        writeEmployees(employees);
+        for (Employee emp : employees) {
+            Employee previous = previousById.remove(emp.getEmployeeId());
+            if (previous == null || !previous.toCSV().equals(emp.toCSV())) {
+                fireEmployeeChanged(previous, emp);
+            }
+        }
+        for (Employee removed : previousById.values()) {
+            fireEmployeeChanged(removed, null);
+        }
+    }
+
+    private void writeEmployees(List<Employee> employees) {
         //Try-with-resources to ensure CSVWriter is closed automatically
         try (CSVWriter writer = new CSVWriter(new FileWriter(EMPLOYEE_FILE, false))) { // false to overwrite
             //Writes the header first
@@ -139,38 +195,210 @@ public class FileHandler {
         }
     }
 
-    //Retrieves all attendance records from the CSV file
+    //Retrieves all attendance records from the CSV file, reading employees.csv for the unknown employee check
     public List<Attendance> getAllAttendanceRecords() {
-        List<Attendance> records = new ArrayList<>();
-        //DateTimeFormatter for parsing date from CSV
-        DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("MM/dd/yyyy");
+        return getAllAttendanceRecords(readEmployeeIds());
+    }
 
+    //Retrieves all attendance records, checking employee IDs against a set the caller already has
+    public List<Attendance> getAllAttendanceRecords(Set<String> knownEmployeeIds) {
+        AttendanceRowValidator validator = new AttendanceRowValidator(knownEmployeeIds);
         //Try-with-resources to ensure CSVReader is closed automatically
         try (CSVReader reader = new CSVReader(new FileReader(ATTENDANCE_FILE))) {
             String[] nextLine;
             reader.readNext(); // Skip header line
-
+            int lineNumber = 1;
             while ((nextLine = reader.readNext()) != null) {
-                try {
-                    //Ensure the line has enough columns before accessing them
-                    if (nextLine.length >= 6) {
-                        String employeeId = nextLine[0];
-                        LocalDate date = LocalDate.parse(nextLine[3], dateFormatter);
-                        LocalTime timeIn = parseTimeWithFallbacks(nextLine[4]);
-                        LocalTime timeOut = parseTimeWithFallbacks(nextLine[5]);
-                        records.add(new Attendance(employeeId, date, timeIn, timeOut));
-                    } else {
-                        System.err.println("Skipping malformed line in attendance.csv (not enough columns): " + String.join(",", nextLine));
-                    }
-                } catch (Exception e) {
-                    System.err.println("Error parsing line in attendance.csv (will be skipped): " + String.join(",", nextLine) + " - " + e.getMessage());
-                }
+                validator.accept(nextLine, ++lineNumber);
             }
         } catch (IOException | CsvValidationException e) {
             System.err.println("Error reading attendance file: " + e.getMessage());
             e.printStackTrace();
         }
-        return records;
+        recordValidation(validator.report());
+        return validator.records;
+    }
+
+
+    //The employee IDs of a list of employees, for getAllAttendanceRecords(Set)
+    public static Set<String> employeeIds(List<Employee> employees) {
+        Set<String> ids = new HashSet<>();
+        for (Employee employee : employees) {
+            ids.add(employee.getEmployeeId());
+        }
+        return ids;
+    }
+
+
+    /*
+    Validates attendance rows in file order. Rows that fail a check become anomalies;
+    the rest become records. Clean rows fall straight through the checks to the add.
+    */
+    private final class AttendanceRowValidator {
+        private final DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("MM/dd/yyyy");
+        private final Set<String> knownEmployeeIds;
+        private final Map<String, BitSet> seenDays = new HashMap<>(); // Employee ID -> days since FIRST_DAY already recorded
+        private final List<Attendance> records = new ArrayList<>();
+        private final List<AttendanceAnomaly> anomalies = new ArrayList<>();
+
+        AttendanceRowValidator(Set<String> knownEmployeeIds) {
+            this.knownEmployeeIds = knownEmployeeIds;
+        }
+
+        //Returns the record the row became, or null if it was quarantined
+        Attendance accept(String[] row, int lineNumber) {
+            //Ensure the line has enough columns before accessing them
+            if (row.length < 6) {
+                anomalies.add(anomaly(AttendanceAnomaly.Type.MALFORMED_ROW, lineNumber, row, "not enough columns"));
+                return null;
+            }
+            String employeeId = row[0];
+            LocalDate date;
+            LocalTime timeIn;
+            LocalTime timeOut;
+            try {
+                date = LocalDate.parse(row[3], dateFormatter);
+                timeIn = parseTimeWithFallbacks(row[4]);
+                timeOut = parseTimeWithFallbacks(row[5]);
+            } catch (DateTimeParseException e) {
+                anomalies.add(anomaly(AttendanceAnomaly.Type.UNPARSEABLE_VALUE, lineNumber, row, e.getMessage()));
+                return null;
+            }
+            long day = date.toEpochDay() - FIRST_DAY;
+
+            if (day < 0 || day > Integer.MAX_VALUE - 1) {
+                anomalies.add(anomaly(AttendanceAnomaly.Type.UNPARSEABLE_VALUE, lineNumber, row, "date " + row[3] + " is out of range"));
+            } else if (timeIn == null || timeOut == null) {
+                anomalies.add(anomaly(AttendanceAnomaly.Type.MISSING_PUNCH, lineNumber, row,
+                        timeIn == null ? "no log in" : "no log out"));
+            } else if (!timeOut.isAfter(timeIn)) {
+                anomalies.add(anomaly(AttendanceAnomaly.Type.TIME_OUT_BEFORE_TIME_IN, lineNumber, row,
+                        "log out " + timeOut + " is not after log in " + timeIn));
+            } else if (!knownEmployeeIds.isEmpty() && !knownEmployeeIds.contains(employeeId)) {
+                anomalies.add(anomaly(AttendanceAnomaly.Type.UNKNOWN_EMPLOYEE, lineNumber, row,
+                        "employee " + employeeId + " not found"));
+            } else if (!markSeen(employeeId, (int) day)) {
+                anomalies.add(anomaly(AttendanceAnomaly.Type.DUPLICATE_DAY, lineNumber, row,
+                        "second record for employee " + employeeId + " on " + row[3]));
+            } else {
+                Attendance record = new Attendance(employeeId, date, timeIn, timeOut);
+                records.add(record);
+                return record;
+            }
+            return null;
+        }
+
+        //Returns false if the employee already has a record on the day
+        private boolean markSeen(String employeeId, int day) {
+            BitSet days = seenDays.get(employeeId);
+            if (days == null) {
+                days = new BitSet();
+                seenDays.put(employeeId, days);
+            } else if (days.get(day)) {
+                return false;
+            }
+            days.set(day);
+            return true;
+        }
+
+        AttendanceValidationReport report() {
+            return new AttendanceValidationReport(records.size(), anomalies);
+        }
+    }
+
+
+    //Returns the result of validating attendance.csv on the last read, or null if it has not been read yet
+    public AttendanceValidationReport getLastValidationReport() {
+        return lastValidationReport;
+    }
+
+
+    private AttendanceAnomaly anomaly(AttendanceAnomaly.Type type, int lineNumber, String[] row, String detail) {
+        return new AttendanceAnomaly(type, lineNumber, row.length > 0 ? row[0] : "", String.join(",", row), detail);
+    }
+
+
+    //Reads only the employee ID column, for validating attendance rows
+    private Set<String> readEmployeeIds() {
+        Set<String> ids = new HashSet<>();
+        try (CSVReader reader = new CSVReader(new FileReader(EMPLOYEE_FILE))) {
+            String[] nextLine;
+            reader.readNext(); // Skip header line
+            while ((nextLine = reader.readNext()) != null) {
+                if (nextLine.length > 0 && !nextLine[0].isEmpty()) {
+                    ids.add(nextLine[0]);
+                }
+            }
+        } catch (FileNotFoundException e) {
+            // No employee file yet; the unknown employee check is skipped
+        } catch (IOException | CsvValidationException e) {
+            System.err.println("Error reading employee IDs: " + e.getMessage());
+        }
+        return ids;
+    }
+
+
+    /*
+    Keeps the report of the last read and appends rows not quarantined before to the
+    quarantine file. The summary is printed only when new rows are quarantined, instead
+    of one error line per bad row on every read.
+    */
+    private static void recordValidation(AttendanceValidationReport report) {
+        lastValidationReport = report;
+        if (report.isClean()) {
+            return;
+        }
+        synchronized (QUARANTINE_LOCK) {
+            if (quarantinedRows == null) {
+                quarantinedRows = readQuarantinedRows();
+            }
+
+            List<AttendanceAnomaly> newAnomalies = new ArrayList<>();
+            for (AttendanceAnomaly anomaly : report.getAnomalies()) {
+                if (quarantinedRows.add(anomaly.getType() + "|" + anomaly.getRow())) {
+                    newAnomalies.add(anomaly);
+                }
+            }
+            if (newAnomalies.isEmpty()) {
+                return;
+            }
+
+            boolean newFile = !new File(QUARANTINE_FILE).exists();
+            try (CSVWriter writer = new CSVWriter(new FileWriter(QUARANTINE_FILE, true))) {
+                if (newFile) {
+                    writer.writeNext(QUARANTINE_HEADER.split(","));
+                }
+                for (AttendanceAnomaly anomaly : newAnomalies) {
+                    writer.writeNext(new String[] {
+                            anomaly.getType().name(), String.valueOf(anomaly.getLineNumber()), anomaly.getDetail(), anomaly.getRow()
+                    });
+                }
+            } catch (IOException e) {
+                System.err.println("Error writing attendance quarantine file: " + e.getMessage());
+            }
+            System.err.println("attendance.csv: " + report.getSummary() + "; " + newAnomalies.size()
+                    + " new row(s) quarantined to " + QUARANTINE_FILE);
+        }
+    }
+
+
+    private static Set<String> readQuarantinedRows() {
+        Set<String> rows = new HashSet<>();
+        if (!new File(QUARANTINE_FILE).exists()) {
+            return rows;
+        }
+        try (CSVReader reader = new CSVReader(new FileReader(QUARANTINE_FILE))) {
+            String[] nextLine;
+            reader.readNext(); // Skip header line
+            while ((nextLine = reader.readNext()) != null) {
+                if (nextLine.length >= 4) {
+                    rows.add(nextLine[0] + "|" + nextLine[3]);
+                }
+            }
+        } catch (IOException | CsvValidationException e) {
+            System.err.println("Error reading attendance quarantine file: " + e.getMessage());
+        }
+        return rows;
     }
 
 
@@ -189,24 +417,62 @@ public class FileHandler {
     }
 
 
-    //Saves or updates a single attendance record
+    /*
+    Saves or updates a single attendance record. The record replaces the first row
+    for the same employee and date, or is appended, and every other row is written
+    back as it was read, quarantined rows and file order included. Listeners hear
+    about the records validation keeps for that employee and date before and after.
+    */
     public void saveAttendanceRecord(Attendance recordToSave) {
-        List<Attendance> records = getAllAttendanceRecords();
-        boolean recordFound = false;
-        for (int i = 0; i < records.size(); i++) {
-            Attendance record = records.get(i);
-            if (record.getEmployeeId().equals(recordToSave.getEmployeeId()) && record.getDate().equals(recordToSave.getDate())) {
-                records.set(i, recordToSave);
-                recordFound = true;
+        DateTimeFormatter dateFormatterOutput = DateTimeFormatter.ofPattern("MM/dd/yyyy"); // Standard format for writing date
+        DateTimeFormatter timeFormatterOutput = DateTimeFormatter.ofPattern("HH:mm"); // Standard format for writing time
+        String employeeId = recordToSave.getEmployeeId();
+        String date = recordToSave.getDate().format(dateFormatterOutput);
+
+        List<Employee> employees = readEmployees();
+        Set<String> knownEmployeeIds = employeeIds(employees);
+        Employee employee = employees.stream()
+                .filter(emp -> emp.getEmployeeId().equals(employeeId))
+                .findFirst()
+                .orElse(null);
+        String lastName = "";
+        String firstName = "";
+        if (employee != null) {
+            lastName = employee.getLastName();
+            firstName = employee.getFirstName();
+        } else {
+            System.err.println("Warning: Employee details not found for ID: " + employeeId + " when saving attendance.");
+        }
+        String[] row = {
+            employeeId,
+            lastName, // Last Name
+            firstName, // First Name
+            date,
+            recordToSave.getTimeIn() != null ? recordToSave.getTimeIn().format(timeFormatterOutput) : "", // Handle null timeIn
+            recordToSave.getTimeOut() != null ? recordToSave.getTimeOut().format(timeFormatterOutput) : "" // Handle null timeOut
+        };
+
+        List<String[]> rows = readAttendanceRows();
+        Attendance previous = findValidated(rows, knownEmployeeIds, employeeId, recordToSave.getDate(), false);
+        boolean replaced = false;
+        for (int i = 0; i < rows.size(); i++) {
+            String[] existing = rows.get(i);
+            if (existing.length >= 4 && existing[0].equals(employeeId) && existing[3].equals(date)) {
+                rows.set(i, row);
+                replaced = true;
                 break;
             }
         }
-        if (!recordFound) {
-            records.add(recordToSave);
+        if (!replaced) {
+            rows.add(row);
+        }
+        if (!writeAttendanceRows(rows)) {
+            return;
+        }
+        Attendance current = findValidated(rows, knownEmployeeIds, employeeId, recordToSave.getDate(), true);
+        if (previous != null || current != null) {
+            fireAttendanceChanged(previous, current);
         }
-        // Sort records before saving to maintain a consistent order, e.g., by employee ID then date
-        records.sort(Comparator.comparing(Attendance::getEmployeeId).thenComparing(Attendance::getDate));
-        saveAllAttendanceRecords(records);
     }
     
 
@@ -216,36 +482,54 @@ public class FileHandler {
     }
 
 
-    //Saves all attendance records to the CSV, overwriting existing content
-    private void saveAllAttendanceRecords(List<Attendance> records) {
+    //Validates rows already in memory and returns the record kept for the employee and date, if any
+    private Attendance findValidated(List<String[]> rows, Set<String> knownEmployeeIds, String employeeId, LocalDate date, boolean record) {
+        AttendanceRowValidator validator = new AttendanceRowValidator(knownEmployeeIds);
+        Attendance found = null;
+        for (int i = 0; i < rows.size(); i++) {
+            Attendance attendance = validator.accept(rows.get(i), i + 2); // Line 1 is the header
+            if (attendance != null && attendance.getEmployeeId().equals(employeeId) && attendance.getDate().equals(date)) {
+                found = attendance;
+            }
+        }
+        if (record) {
+            recordValidation(validator.report());
+        }
+        return found;
+    }
+
+
+    //Reads attendance.csv as unvalidated rows, without the header
+    private List<String[]> readAttendanceRows() {
+        List<String[]> rows = new ArrayList<>();
+        try (CSVReader reader = new CSVReader(new FileReader(ATTENDANCE_FILE))) {
+            String[] nextLine;
+            reader.readNext(); // Skip header line
+            while ((nextLine = reader.readNext()) != null) {
+                rows.add(nextLine);
+            }
+        } catch (FileNotFoundException e) {
+            // No attendance file yet; the saved row becomes the first one
+        } catch (IOException | CsvValidationException e) {
+            System.err.println("Error reading attendance file: " + e.getMessage());
+            e.printStackTrace();
+        }
+        return rows;
+    }
+
+
+    //Writes attendance rows to the CSV, overwriting existing content. Returns false if writing failed
+    private boolean writeAttendanceRows(List<String[]> rows) {
         try (CSVWriter writer = new CSVWriter(new FileWriter(ATTENDANCE_FILE, false))) { // false to overwrite
             writer.writeNext(ATTENDANCE_HEADER.split(",")); // Write header
-            DateTimeFormatter timeFormatterOutput = DateTimeFormatter.ofPattern("HH:mm"); // Standard format for writing time
-            DateTimeFormatter dateFormatterOutput = DateTimeFormatter.ofPattern("MM/dd/yyyy"); // Standard format for writing date
-
-            for (Attendance record : records) {
-                Employee employee = getEmployeeById(record.getEmployeeId()); // Fetch employee details
-                String lastName = "";
-                String firstName = "";
-                if (employee != null) {
-                    lastName = employee.getLastName();
-                    firstName = employee.getFirstName();
-                } else {
-                    // Optionally log or handle cases where employee details are not found for an ID
-                    System.err.println("Warning: Employee details not found for ID: " + record.getEmployeeId() + " when saving attendance.");
-                }
-                writer.writeNext(new String[]{
-                    record.getEmployeeId(),
-                    lastName, // Last Name
-                    firstName, // First Name
-                    record.getDate().format(dateFormatterOutput),
-                    record.getTimeIn() != null ? record.getTimeIn().format(timeFormatterOutput) : "", // Handle null timeIn
-                    record.getTimeOut() != null ? record.getTimeOut().format(timeFormatterOutput) : "" // Handle null timeOut
-                });
+            for (String[] row : rows) {
+                writer.writeNext(row);
             }
+            return true;
         } catch (IOException e) {
             System.err.println("Error saving attendance records: " + e.getMessage());
             e.printStackTrace();
+            return false;
         }
     }
 
@@ -265,20 +549,30 @@ public class FileHandler {
     //Updates details of an existing employee in the list and saves it
     public void saveEmployee(Employee employee) {
         List<Employee> employees = readEmployees();
+        Employee previous = employees.stream()
+                .filter(emp -> emp.getEmployeeId().equals(employee.getEmployeeId()))
+                .findFirst()
+                .orElse(null);
         // Remove old record if exists, then add updated one
         employees.removeIf(emp -> emp.getEmployeeId().equals(employee.getEmployeeId()));
         employees.add(employee);
         // Sort for consistency, e.g., by employee ID
         employees.sort(Comparator.comparing(Employee::getEmployeeId));
-        saveAllEmployees(employees);
+        writeEmployees(employees);
+        fireEmployeeChanged(previous, employee);
     }
 
     //Deletes an employee by ID and updates the CSV
     public boolean deleteEmployee(String id) {
         List<Employee> employees = readEmployees();
+        Employee previous = employees.stream()
+                .filter(emp -> emp.getEmployeeId().equals(id))
+                .findFirst()
+                .orElse(null);
         boolean removed = employees.removeIf(emp -> emp.getEmployeeId().equals(id));
         if (removed) {
-            saveAllEmployees(employees);
+            writeEmployees(employees);
+            fireEmployeeChanged(previous, null);
         }
         return removed;
     }
@@ -297,6 +591,11 @@ public class FileHandler {
         return ATTENDANCE_FILE;
     }
 
+    //Returns the path to the data folder, where generated files such as run journals are kept
+    public String getDataFolderPath() {
+        return DATA_FOLDER;
+    }
+
     //Returns the path to the employee CSV file
     public String getEmployeeFilePath() {
         return EMPLOYEE_FILE;
@@ -0,0 +1,142 @@
+package motorph;
+
+import com.opencsv.CSVReader;
+import com.opencsv.exceptions.CsvValidationException;
+
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Regular and special non-working holidays, loaded from data/holidays.csv
+ * (Date,Type,Name with dates as MM/dd/yyyy and Type REGULAR or SPECIAL).
+ *
+ * The file is compiled into one array of holiday types per year, indexed by
+ * year and then by day of year, so a holiday check in the payroll loop is
+ * two array reads with no boxing.
+ */
+public final class HolidayCalendar {
+
+    public static final int NONE = 0;
+    public static final int REGULAR = 1;
+    public static final int SPECIAL = 2;
+
+    private static final String HOLIDAY_FILE = FileHandler.DATA_FOLDER + File.separator + "holidays.csv";
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("MM/dd/yyyy");
+
+    private static volatile Table table;
+
+    // The loaded holidays: days[year - firstYear][day of year - 1] is NONE, REGULAR or SPECIAL
+    private static final class Table {
+        final int firstYear;
+        final byte[][] days;
+        final int version;
+
+        Table(int firstYear, byte[][] days) {
+            this.firstYear = firstYear;
+            this.days = days;
+            this.version = firstYear ^ Arrays.deepHashCode(days);
+        }
+    }
+
+    private HolidayCalendar() {}
+
+    /**
+     * Returns REGULAR, SPECIAL or NONE for the date.
+     */
+    public static int holidayType(LocalDate date) {
+        Table t = table();
+        int year = date.getYear() - t.firstYear;
+        if (year < 0 || year >= t.days.length || t.days[year] == null) {
+            return NONE;
+        }
+        return t.days[year][date.getDayOfYear() - 1];
+    }
+
+    public static boolean isRegularHoliday(LocalDate date) {
+        return holidayType(date) == REGULAR;
+    }
+
+    public static boolean isSpecialHoliday(LocalDate date) {
+        return holidayType(date) == SPECIAL;
+    }
+
+    /**
+     * Changes whenever the loaded holidays change; part of the payroll rate-table version.
+     */
+    public static int getVersion() {
+        return table().version;
+    }
+
+    /**
+     * Re-reads the holiday file, e.g. after it has been edited.
+     */
+    public static synchronized void reload() {
+        // year -> holiday type by day of year
+        TreeMap<Integer, byte[]> loaded = new TreeMap<>();
+        File file = new File(HOLIDAY_FILE);
+        if (file.exists()) {
+            try (CSVReader reader = new CSVReader(new FileReader(file))) {
+                String[] row;
+                reader.readNext(); // Skip header
+                while ((row = reader.readNext()) != null) {
+                    if (row.length < 2) {
+                        continue;
+                    }
+                    try {
+                        LocalDate date = LocalDate.parse(row[0].trim(), DATE_FORMATTER);
+                        String type = row[1].trim().toUpperCase();
+                        byte holiday;
+                        if (type.equals("REGULAR")) {
+                            holiday = REGULAR;
+                        } else if (type.equals("SPECIAL")) {
+                            holiday = SPECIAL;
+                        } else {
+                            System.err.println("Unknown holiday type in " + HOLIDAY_FILE + ": " + String.join(",", row));
+                            continue;
+                        }
+                        byte[] days = loaded.computeIfAbsent(date.getYear(), y -> new byte[366]);
+                        int day = date.getDayOfYear() - 1;
+                        if (days[day] != REGULAR) { // A regular holiday wins over a special day on the same date
+                            days[day] = holiday;
+                        }
+                    } catch (DateTimeParseException e) {
+                        System.err.println("Skipping malformed line in " + HOLIDAY_FILE + ": " + String.join(",", row));
+                    }
+                }
+            } catch (IOException | CsvValidationException e) {
+                System.err.println("Error reading holidays: " + e.getMessage());
+            }
+        }
+
+        if (loaded.isEmpty()) {
+            table = new Table(0, new byte[0][]);
+            return;
+        }
+        int firstYear = loaded.firstKey();
+        byte[][] days = new byte[loaded.lastKey() - firstYear + 1][];
+        for (Map.Entry<Integer, byte[]> entry : loaded.entrySet()) {
+            days[entry.getKey() - firstYear] = entry.getValue();
+        }
+        table = new Table(firstYear, days);
+    }
+
+    private static Table table() {
+        Table current = table;
+        if (current == null) {
+            synchronized (HolidayCalendar.class) {
+                if (table == null) {
+                    reload();
+                }
+                current = table;
+            }
+        }
+        return current;
+    }
+}
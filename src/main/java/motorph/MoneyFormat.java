@@ -0,0 +1,55 @@
+package motorph;
+
+/**
+ * Fast formatting of centavo amounts as peso text ("1234.56" or "1,234.56").
+ * Appends digits directly to a StringBuilder instead of going through
+ * String.format, which parses its pattern and allocates on every call.
+ */
+public final class MoneyFormat {
+
+    private MoneyFormat() {}
+
+    /**
+     * Appends centavos as pesos with two decimals, optionally with thousands separators.
+     */
+    public static StringBuilder append(StringBuilder sb, long centavos, boolean grouping) {
+        if (centavos < 0) {
+            sb.append('-');
+            centavos = -centavos;
+        }
+        long pesos = centavos / 100;
+        int cents = (int) (centavos % 100);
+        appendPesos(sb, pesos, grouping);
+        sb.append('.');
+        sb.append((char) ('0' + cents / 10));
+        sb.append((char) ('0' + cents % 10));
+        return sb;
+    }
+
+    /**
+     * Formats centavos as pesos with thousands separators, like "%,.2f".
+     */
+    public static String format(long centavos) {
+        return append(new StringBuilder(16), centavos, true).toString();
+    }
+
+    /**
+     * Appends a minute count as hours with two decimals, rounded half up.
+     */
+    public static StringBuilder appendHours(StringBuilder sb, int minutes) {
+        return append(sb, PayrollKernel.divideRoundHalfUp(minutes * 100L, PayrollKernel.MINUTES_PER_HOUR), false);
+    }
+
+    private static void appendPesos(StringBuilder sb, long pesos, boolean grouping) {
+        if (!grouping || pesos < 1000) {
+            sb.append(pesos);
+            return;
+        }
+        appendPesos(sb, pesos / 1000, true);
+        int group = (int) (pesos % 1000);
+        sb.append(',');
+        if (group < 100) sb.append('0');
+        if (group < 10) sb.append('0');
+        sb.append(group);
+    }
+}
@@ -8,7 +8,6 @@ import java.time.LocalDate;
 import java.time.LocalTime;
 import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
-import java.time.temporal.WeekFields;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
@@ -48,6 +47,7 @@ public class MotorPH {
                     break;
                 case "0":
                     System.out.println("Exiting system. Goodbye!");
+                    payroll.close();
                     scanner.close();
                     return;
                 default:
@@ -421,9 +421,7 @@ public class MotorPH {
      */
     private static void displayFilteredAttendance(List<Attendance> records, int weekChoice, Employee employee) {
         Map<Integer, List<Attendance>> weeklyRecords = records.stream()
-                .collect(Collectors.groupingBy(
-                        r -> r.getDate().get(WeekFields.ISO.weekOfMonth())
-                ));
+                .collect(Collectors.groupingBy(r -> PayPeriodCalendar.weekOfMonth(r.getDate())));
 
         System.out.println("ATTENDANCE RECORDS FOR " + employee.getLastName() + ", " + employee.getFirstName());
 
@@ -469,6 +467,10 @@ public class MotorPH {
             printSectionHeader("PAYROLL CALCULATION");
             System.out.println("1. Calculate for Specific Employee");
             System.out.println("2. Calculate for All Employees");
+            System.out.println("3. What-if Simulation");
+            System.out.println("4. Generate Payslips");
+            System.out.println("5. Export Payroll Register (CSV)");
+            System.out.println("6. Year-to-Date Summary");
             System.out.println("0. Back to Main Menu");
             System.out.print("Enter your choice: ");
             String choice = scanner.nextLine();
@@ -480,6 +482,18 @@ public class MotorPH {
                 case "2":
                     calculateAllEmployeesPayroll(scanner, payroll, fileHandler);
                     break;
+                case "3":
+                    runPayrollSimulation(scanner, payroll, fileHandler);
+                    break;
+                case "4":
+                    generatePayslips(scanner, payroll, fileHandler);
+                    break;
+                case "5":
+                    exportPayrollRegister(scanner, payroll, fileHandler);
+                    break;
+                case "6":
+                    showYearToDateSummary(scanner, payroll);
+                    break;
                 case "0":
                     return;
                 default:
@@ -561,7 +575,178 @@ public class MotorPH {
         System.out.print("Select week (1-5): ");
         int weekChoice = Integer.parseInt(scanner.nextLine());
 
-        payroll.calculateAllWeeklyPayroll(selectedMonth, weekChoice == 5 ? 0 : weekChoice);
+        int weekNumber = weekChoice == 5 ? 0 : weekChoice;
+        PayrollRunManager runManager = new PayrollRunManager(fileHandler, payroll);
+        if (runManager.hasInterruptedRun(selectedMonth, weekNumber)) {
+            System.out.println("Resuming interrupted run from its last checkpoint.");
+        }
+
+        // Each report is printed as soon as the employee is checkpointed in the run journal
+        RunProgress progress = runManager.run(selectedMonth, weekNumber,
+                report -> System.out.print(payroll.formatPayrollReport(report)),
+                null);
+
+        System.out.println("\nRun " + progress.getRunId() + ": " + progress);
+        if (progress.getResumed() > 0) {
+            System.out.println(progress.getResumed() + " employee(s) were already finished before this session.");
+        }
+        if (progress.getFailed() > 0) {
+            System.out.println("Some employees failed; run this option again to retry them.");
+        }
+        printSectionFooter();
+    }
+
+    /**
+     * Runs a what-if simulation (raises, overtime multipliers) over all available months
+     */
+    private static void runPayrollSimulation(Scanner scanner, PayrollCalculator payroll, FileHandler fileHandler) {
+        printSectionHeader("WHAT-IF PAYROLL SIMULATION");
+        List<YearMonth> availableMonths = payroll.getAllAvailableMonths();
+        if (availableMonths.isEmpty()) {
+            System.out.println("No attendance records found.");
+            printSectionFooter();
+            return;
+        }
+
+        SimulationOverrides overrides = new SimulationOverrides();
+        try {
+            System.out.print("Position to raise (blank for none): ");
+            String position = scanner.nextLine().trim();
+            if (!position.isEmpty()) {
+                System.out.print("Raise for " + position + " (%): ");
+                overrides.setRaisePercentForPosition(position, Double.parseDouble(scanner.nextLine().trim()));
+            }
+            System.out.print("Weekday OT multiplier in % (blank for " + payroll.getRegularDayOtMultiplier() + "): ");
+            String regularOt = scanner.nextLine().trim();
+            if (!regularOt.isEmpty()) {
+                overrides.setRegularDayOtMultiplier(Integer.parseInt(regularOt));
+            }
+            System.out.print("Rest day OT multiplier in % (blank for " + payroll.getRestDayOtMultiplier() + "): ");
+            String restOt = scanner.nextLine().trim();
+            if (!restOt.isEmpty()) {
+                overrides.setRestDayOtMultiplier(Integer.parseInt(restOt));
+            }
+        } catch (NumberFormatException e) {
+            System.out.println("Invalid number. Simulation cancelled.");
+            printSectionFooter();
+            return;
+        }
+
+        SimulationReport report = new PayrollSimulator(fileHandler).simulate(availableMonths, overrides);
+        System.out.println();
+        System.out.print(report.format());
+        printSectionFooter();
+    }
+
+    /**
+     * Generates payslip files for all employees for a selected month
+     */
+    private static void generatePayslips(Scanner scanner, PayrollCalculator payroll, FileHandler fileHandler) {
+        printSectionHeader("GENERATE PAYSLIPS");
+        List<YearMonth> availableMonths = payroll.getAllAvailableMonths();
+        if (availableMonths.isEmpty()) {
+            System.out.println("No attendance records found.");
+            printSectionFooter();
+            return;
+        }
+
+        System.out.println("\nAvailable Months:");
+        for (int i = 0; i < availableMonths.size(); i++) {
+            System.out.printf("%d. %s%n", i+1, availableMonths.get(i).format(DateTimeFormatter.ofPattern("MMMM yyyy")));
+        }
+        System.out.print("Select month (number): ");
+        int monthChoice = Integer.parseInt(scanner.nextLine()) - 1;
+        if (monthChoice < 0 || monthChoice >= availableMonths.size()) {
+            System.out.println("Invalid month selection.");
+            printSectionFooter();
+            return;
+        }
+        YearMonth selectedMonth = availableMonths.get(monthChoice);
+
+        System.out.print("Format (1 = HTML, 2 = Plain text): ");
+        PayslipGenerator.Format format = "2".equals(scanner.nextLine().trim())
+                ? PayslipGenerator.Format.TEXT : PayslipGenerator.Format.HTML;
+
+        try {
+            int written = new PayslipGenerator(fileHandler, payroll, format).generate(selectedMonth);
+            System.out.println(written + " payslip(s) written to " + fileHandler.getDataFolderPath()
+                    + java.io.File.separator + "payslips" + java.io.File.separator + selectedMonth);
+        } catch (IOException e) {
+            System.out.println("Error generating payslips: " + e.getMessage());
+        }
+        printSectionFooter();
+    }
+
+    /**
+     * Shows each employee's year-to-date totals and the tax still due or to be refunded
+     */
+    private static void showYearToDateSummary(Scanner scanner, PayrollCalculator payroll) {
+        printSectionHeader("YEAR-TO-DATE SUMMARY");
+        System.out.print("Enter year (e.g. 2024): ");
+        int year;
+        try {
+            year = Integer.parseInt(scanner.nextLine().trim());
+        } catch (NumberFormatException e) {
+            System.out.println("Invalid year.");
+            printSectionFooter();
+            return;
+        }
+
+        YearToDateLedger ledger = payroll.getLedger();
+        List<String> ids = ledger.getEmployeeIds(year);
+        if (ids.isEmpty()) {
+            System.out.println("No finalized payroll runs for " + year + ".");
+            printSectionFooter();
+            return;
+        }
+
+        System.out.printf("%-8s %15s %15s %15s %15s%n", "Emp #", "Gross", "Contributions", "Tax Withheld", "Tax Due/(Refund)");
+        for (String id : ids) {
+            YearToDateLedger.Totals totals = ledger.get(id, year);
+            System.out.printf("%-8s %15s %15s %15s %15s%n", id,
+                    MoneyFormat.format(totals.getGross()),
+                    MoneyFormat.format(totals.getContributions()),
+                    MoneyFormat.format(totals.getTaxWithheld()),
+                    MoneyFormat.format(ledger.reconcile(id, year)));
+        }
+        printSectionFooter();
+    }
+
+    /**
+     * Exports the payroll register for one month or all months to a CSV file
+     */
+    private static void exportPayrollRegister(Scanner scanner, PayrollCalculator payroll, FileHandler fileHandler) {
+        printSectionHeader("EXPORT PAYROLL REGISTER");
+        List<YearMonth> availableMonths = payroll.getAllAvailableMonths();
+        if (availableMonths.isEmpty()) {
+            System.out.println("No attendance records found.");
+            printSectionFooter();
+            return;
+        }
+
+        System.out.println("\nAvailable Months:");
+        System.out.println("0. All Months");
+        for (int i = 0; i < availableMonths.size(); i++) {
+            System.out.printf("%d. %s%n", i+1, availableMonths.get(i).format(DateTimeFormatter.ofPattern("MMMM yyyy")));
+        }
+        System.out.print("Select month (number): ");
+        int monthChoice = Integer.parseInt(scanner.nextLine());
+        if (monthChoice < 0 || monthChoice > availableMonths.size()) {
+            System.out.println("Invalid month selection.");
+            printSectionFooter();
+            return;
+        }
+        List<YearMonth> months = monthChoice == 0 ? availableMonths : List.of(availableMonths.get(monthChoice - 1));
+        String suffix = monthChoice == 0 ? "all" : months.get(0).toString();
+        java.io.File outputFile = new java.io.File(fileHandler.getDataFolderPath() + java.io.File.separator
+                + "exports" + java.io.File.separator + "payroll-register-" + suffix + ".csv");
+
+        try {
+            int rows = new PayrollRegisterExporter(fileHandler, payroll).export(months, outputFile);
+            System.out.println(rows + " row(s) written to " + outputFile.getPath());
+        } catch (IOException e) {
+            System.out.println("Error exporting payroll register: " + e.getMessage());
+        }
         printSectionFooter();
     }
 }
@@ -0,0 +1,97 @@
+package motorph;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.WeekFields;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Single source of truth for how dates are bucketed into pay periods.
+ *
+ * For each year a lookup table is built once, indexed by day of year, holding
+ * the month, ISO week-of-month, semi-monthly cut-off (1st-15th or 16th-end)
+ * and rest-day flag packed into one int. Every screen and calculation groups
+ * dates through this index, so they all see the same weeks. Punches come in date order, so the last year looked up is kept aside
+ * and most lookups never touch the map of years.
+ */
+public final class PayPeriodCalendar {
+
+    // Bit layout of a table entry
+    private static final int MONTH_SHIFT = 0;      // 1-12, 4 bits
+    private static final int WEEK_SHIFT = 4;       // ISO week of month 0-6, 3 bits
+    private static final int CUTOFF_SHIFT = 7;     // 1 or 2, 2 bits
+    private static final int REST_DAY_SHIFT = 9;   // 1 bit
+    private static final int MONTH_MASK = 0xF;
+    private static final int WEEK_MASK = 0x7;
+    private static final int CUTOFF_MASK = 0x3;
+
+    private static final Map<Integer, YearTable> TABLES = new ConcurrentHashMap<>();
+    private static volatile YearTable lastYear = new YearTable(Integer.MIN_VALUE, new int[0]);
+
+    // One year's table, with its year so it can be checked without boxing
+    private static final class YearTable {
+        final int year;
+        final int[] entries;
+
+        YearTable(int year, int[] entries) {
+            this.year = year;
+            this.entries = entries;
+        }
+    }
+
+    private PayPeriodCalendar() {}
+
+    /**
+     * ISO week of month (week 1 is the first week with at least four days in the month).
+     */
+    public static int weekOfMonth(LocalDate date) {
+        return (entry(date) >>> WEEK_SHIFT) & WEEK_MASK;
+    }
+
+    /**
+     * Semi-monthly cut-off: 1 for the 1st to the 15th, 2 for the 16th to month end.
+     */
+    public static int semiMonthlyCutOff(LocalDate date) {
+        return (entry(date) >>> CUTOFF_SHIFT) & CUTOFF_MASK;
+    }
+
+    /**
+     * Whether the date is a rest day (Saturday or Sunday).
+     */
+    public static boolean isRestDay(LocalDate date) {
+        return ((entry(date) >>> REST_DAY_SHIFT) & 1) == 1;
+    }
+
+    /**
+     * Month of the year, 1-12.
+     */
+    public static int monthValue(LocalDate date) {
+        return (entry(date) >>> MONTH_SHIFT) & MONTH_MASK;
+    }
+
+    private static int entry(LocalDate date) {
+        YearTable table = lastYear;
+        if (table.year != date.getYear()) {
+            table = TABLES.computeIfAbsent(date.getYear(), PayPeriodCalendar::buildYear);
+            lastYear = table;
+        }
+        return table.entries[date.getDayOfYear() - 1];
+    }
+
+    private static YearTable buildYear(int year) {
+        LocalDate day = LocalDate.of(year, 1, 1);
+        int[] table = new int[day.lengthOfYear()];
+        for (int i = 0; i < table.length; i++, day = day.plusDays(1)) {
+            int week = day.get(WeekFields.ISO.weekOfMonth());
+            int cutOff = day.getDayOfMonth() <= 15 ? 1 : 2;
+            DayOfWeek dayOfWeek = day.getDayOfWeek();
+            int restDay = (dayOfWeek == DayOfWeek.SATURDAY || dayOfWeek == DayOfWeek.SUNDAY) ? 1 : 0;
+            table[i] = (day.getMonthValue() << MONTH_SHIFT)
+                    | (week << WEEK_SHIFT)
+                    | (cutOff << CUTOFF_SHIFT)
+                    | (restDay << REST_DAY_SHIFT);
+        }
+        return new YearTable(year, table);
+    }
+}
@@ -2,9 +2,8 @@ package motorph;
 
 import java.time.*;
 import java.time.format.DateTimeFormatter;
-import java.time.temporal.ChronoUnit;
-import java.time.temporal.WeekFields;
 import java.util.*;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 /**
@@ -16,319 +15,426 @@ import java.util.stream.Collectors;
  */
 public class PayrollCalculator {
     private FileHandler fileHandler;
+    private final PayrollResultCache resultCache;
+    private final YearToDateLedger ledger; // Only read here; PayrollRunManager posts to it
+
+    // Overtime multipliers in percent; only what-if simulations use non-default values
+    private final int regularDayOtMultiplier;
+    private final int restDayOtMultiplier;
 
     public PayrollCalculator(FileHandler fileHandler) {
         this.fileHandler = fileHandler;
+        this.resultCache = new PayrollResultCache();
+        FileHandler.addDataChangeListener(resultCache);
+        this.ledger = new YearToDateLedger(fileHandler);
+        this.regularDayOtMultiplier = REGULAR_DAY_OT_MULTIPLIER;
+        this.restDayOtMultiplier = REST_DAY_OT_MULTIPLIER;
     }
 
-    // Constants for payroll calculation rules
-    private static final double REGULAR_DAY_OT_MULTIPLIER = 1.25;    // 125% for weekdays
-    private static final double REST_DAY_OT_MULTIPLIER = 1.30;       // 130% for weekends
-    private static final LocalTime WORK_START_TIME = LocalTime.of(8, 0);
-    private static final int GRACE_PERIOD_MINUTES = 10;
-    private static final int REGULAR_HOURS_PER_DAY = 8;
-    private static final int MINUTES_PER_HOUR = 60;
-
     /**
-     * Calculates regular working hours per day (max 8 hours).
-     * Overtime is calculated separately.
+     * Creates an uncached calculator with overridden overtime multipliers that
+     * withholds tax against the given ledger, as the real payroll does.
+     * Used by PayrollSimulator; results of such a calculator are never persisted.
      */
-    private double calculateRegularHours(LocalTime timeIn, LocalTime timeOut) {
-        long totalMinutes = ChronoUnit.MINUTES.between(timeIn, timeOut);
-        double totalHours = totalMinutes / (double) MINUTES_PER_HOUR;
-        return Math.min(totalHours, REGULAR_HOURS_PER_DAY);
+    PayrollCalculator(YearToDateLedger ledger, int regularDayOtMultiplier, int restDayOtMultiplier) {
+        this.fileHandler = null;
+        this.resultCache = null;
+        this.ledger = ledger;
+        this.regularDayOtMultiplier = regularDayOtMultiplier;
+        this.restDayOtMultiplier = restDayOtMultiplier;
     }
 
     /**
-     * Calculates overtime hours based on work duration.
-     * Returns raw overtime hours (before applying multiplier).
+     * Unregisters the result cache from FileHandler. Call when the calculator is no longer used.
      */
-    private double calculateOvertimeHours(LocalDate date, LocalTime timeIn, LocalTime timeOut) {
-        long totalMinutes = ChronoUnit.MINUTES.between(timeIn, timeOut);
-        double totalHours = totalMinutes / (double) MINUTES_PER_HOUR;
-        double overtimeHours = Math.max(0, totalHours - REGULAR_HOURS_PER_DAY);
-        return overtimeHours;
+    public void close() {
+        if (resultCache != null) {
+            resultCache.close();
+        }
     }
 
-    /**
-     * Determines the appropriate overtime rate multiplier based on the day type.
-     * - Weekdays: 1.25x
-     * - Weekend/Rest days: 1.30x
-     */
-    private double getOvertimeMultiplier(LocalDate date) {
-        DayOfWeek dayOfWeek = date.getDayOfWeek();
-        boolean isRestDay = (dayOfWeek == DayOfWeek.SATURDAY || dayOfWeek == DayOfWeek.SUNDAY);
-        return isRestDay ? REST_DAY_OT_MULTIPLIER : REGULAR_DAY_OT_MULTIPLIER;
-    }
+    // Bump whenever a rate, multiplier or contribution table below changes
+    public static final int RATE_TABLE_VERSION = 4;
+
+    // Constants for payroll calculation rules
+    static final int REGULAR_DAY_OT_MULTIPLIER = 125;    // 125% for weekdays
+    static final int REST_DAY_OT_MULTIPLIER = 130;       // 130% for weekends
+    // Holiday premiums in percent of the hourly rate, paid on top of regular and overtime pay
+    static final int REGULAR_HOLIDAY_PREMIUM = 100;      // regular holidays are paid at 200%
+    static final int SPECIAL_HOLIDAY_PREMIUM = 30;       // special non-working days at 130%
+    // Shift start, grace period, regular hours, undertime and night differential come from AttendanceRules
 
     /**
-     * Calculates minutes of lateness based on a grace period of 10 minutes.
-     * Employees arriving after 8:10 AM are considered late.
+     * Calculates minutes of lateness under the default attendance rule
+     * (by default employees arriving after 8:10 AM are considered late).
      */
     public int calculateLateMinutes(LocalTime timeIn) {
-        LocalTime graceTime = WORK_START_TIME.plusMinutes(GRACE_PERIOD_MINUTES);
-        if (timeIn.isAfter(graceTime)) {
-            return (int) ChronoUnit.MINUTES.between(WORK_START_TIME, timeIn);
-        }
-        return 0;
+        AttendanceRules rules = AttendanceRules.current();
+        return PayrollKernel.lateMinutes(PayrollKernel.minuteOfDay(timeIn),
+                rules.getShiftStart(AttendanceRules.DEFAULT_RULE), rules.getGraceMinutes(AttendanceRules.DEFAULT_RULE));
     }
 
-    /**
-     * Converts late minutes into monetary deduction using hourly rate.
-     */
-    private double calculateLateDeduction(int lateMinutes, double hourlyRate) {
-        return (lateMinutes / 60.0) * hourlyRate;
-    }
 
     /**
-     * Calculates SSS contribution based on monthly salary (2023 rates).
-     * Returns employee share only.
+     * Main entry point to process payroll for an employee and specific month/week.
      */
-    private double calculateSSS(double monthlySalary) {
-        if (monthlySalary < 3250) return 135.00;
-        else if (monthlySalary <= 3750) return 157.50;
-        else if (monthlySalary <= 4250) return 180.00;
-        else if (monthlySalary <= 4750) return 202.50;
-        else if (monthlySalary <= 5250) return 225.00;
-        else if (monthlySalary <= 5750) return 247.50;
-        else if (monthlySalary <= 6250) return 270.00;
-        else if (monthlySalary <= 6750) return 292.50;
-        else if (monthlySalary <= 7250) return 315.00;
-        else if (monthlySalary <= 7750) return 337.50;
-        else if (monthlySalary <= 8250) return 360.00;
-        else if (monthlySalary <= 8750) return 382.50;
-        else if (monthlySalary <= 9250) return 405.00;
-        else if (monthlySalary <= 9750) return 427.50;
-        else if (monthlySalary <= 10250) return 450.00;
-        else if (monthlySalary <= 10750) return 472.50;
-        else if (monthlySalary <= 11250) return 495.00;
-        else if (monthlySalary <= 11750) return 517.50;
-        else if (monthlySalary <= 12250) return 540.00;
-        else if (monthlySalary <= 12750) return 562.50;
-        else if (monthlySalary <= 13250) return 585.00;
-        else if (monthlySalary <= 13750) return 607.50;
-        else if (monthlySalary <= 14250) return 630.00;
-        else if (monthlySalary <= 14750) return 652.50;
-        else if (monthlySalary <= 15250) return 675.00;
-        else if (monthlySalary <= 15750) return 697.50;
-        else if (monthlySalary <= 16250) return 720.00;
-        else if (monthlySalary <= 16750) return 742.50;
-        else if (monthlySalary <= 17250) return 765.00;
-        else if (monthlySalary <= 17750) return 787.50;
-        else if (monthlySalary <= 18250) return 810.00;
-        else if (monthlySalary <= 18750) return 832.50;
-        else if (monthlySalary <= 19250) return 855.00;
-        else if (monthlySalary <= 19750) return 877.50;
-        else if (monthlySalary <= 20250) return 900.00;
-        else if (monthlySalary <= 20750) return 922.50;
-        else if (monthlySalary <= 21250) return 945.00;
-        else if (monthlySalary <= 21750) return 967.50;
-        else if (monthlySalary <= 22250) return 990.00;
-        else if (monthlySalary <= 22750) return 1012.50;
-        else if (monthlySalary <= 23250) return 1035.00;
-        else if (monthlySalary <= 23750) return 1057.50;
-        else if (monthlySalary <= 24250) return 1080.00;
-        else if (monthlySalary <= 24750) return 1102.50;
-        else return 1125.00; // Max contribution
+    public void processPayroll(String employeeId, YearMonth month, int weekNumber) {
+        System.out.print(formatPayrollReport(calculatePayroll(employeeId, month, weekNumber)));
     }
 
+
     /**
-     * Calculates PhilHealth contribution (2023 rates).
-     * Employee pays 1.5% of salary, capped at PHP 900.
+     * Calculates payroll for an employee and month/week (0 = all weeks).
+     * Results are served from the payroll result cache when the employee and
+     * their punches for the period have not changed since the last calculation.
      */
-    private double calculatePhilHealth(double monthlySalary) {
-        if (monthlySalary <= 10000.00) {
-            return 150.00;
-        } else if (monthlySalary < 60000.00) { 
-            return monthlySalary * 0.015; 
-        } else {
-            return 900.00; 
+    public PayrollReport calculatePayroll(String employeeId, YearMonth month, int weekNumber) {
+        if (resultCache == null) {
+            return computePayroll(employeeId, month, weekNumber);
+        }
+        int rateTableVersion = getRateTableVersion();
+        PayrollReport cached = resultCache.get(employeeId, month, weekNumber, rateTableVersion);
+        if (cached != null) {
+            return cached;
         }
+
+        long generation = resultCache.getGeneration();
+        PayrollReport report = computePayroll(employeeId, month, weekNumber);
+        resultCache.put(employeeId, month, weekNumber, rateTableVersion, report, generation);
+        return report;
     }
 
 
     /**
-     * Calculates Pag-IBIG contribution (2023 rates).
-     * Capped at PHP 100.
+     * Calculates payroll for an already loaded employee and attendance, handing each
+     * week to weekListener as soon as it is done so a caller can show weeks as they
+     * come in. Shares the result cache with {@link #calculatePayroll(String, YearMonth, int)};
+     * a cached report hands over all of its weeks at once.
      */
-    private double calculatePagIBIG(double monthlySalary) {
-        if (monthlySalary <= 1500.00) {
-            return monthlySalary * 0.01; 
-        } else {
-            double contribution = monthlySalary * 0.02; 
-            return Math.min(contribution, 100.00); 
+    public PayrollReport calculatePayroll(Employee employee, YearMonth month, int weekNumber,
+                                          List<Attendance> records, Consumer<WeeklyPayroll> weekListener) {
+        int rateTableVersion = getRateTableVersion();
+        PayrollReport cached = resultCache != null
+                ? resultCache.get(employee.getEmployeeId(), month, weekNumber, rateTableVersion) : null;
+        if (cached != null) {
+            cached.getWeeks().forEach(weekListener);
+            return cached;
         }
-    }
 
-    /**
-     * Calculates withholding tax based on taxable income.
-     * Taxable income = gross salary - mandatory deductions.
-     */
-    private double calculateWithholdingTax(double monthlySalary, double sss, double philhealth, double pagibig) {
-        double taxableIncome = monthlySalary - (sss + philhealth + pagibig);
-        if (taxableIncome <= 20833.00) {
-            return 0.00;
-        } else if (taxableIncome <= 33333.00) {
-            return (taxableIncome - 20833.00) * 0.20;
-        } else if (taxableIncome <= 66667.00) {
-            return 2500.00 + (taxableIncome - 33333.00) * 0.25;
-        } else if (taxableIncome <= 166667.00) {
-            return 10833.00 + (taxableIncome - 66667.00) * 0.30;
-        } else if (taxableIncome <= 666667.00) {
-            return 40833.33 + (taxableIncome - 166667.00) * 0.32;
-        } else { // taxableIncome > 666667.00
-            return 200833.33 + (taxableIncome - 666667.00) * 0.35;
+        long generation = resultCache != null ? resultCache.getGeneration() : 0;
+        PayrollReport report = computeReport(employee, month, weekNumber, records, weekListener);
+        if (resultCache != null) {
+            resultCache.put(employee.getEmployeeId(), month, weekNumber, rateTableVersion, report, generation);
         }
+        return report;
     }
 
 
-    /**
-     * Main entry point to process payroll for an employee and specific month/week.
-     */
-    public void processPayroll(String employeeId, YearMonth month, int weekNumber) {
+    private PayrollReport computePayroll(String employeeId, YearMonth month, int weekNumber) {
         Employee employee = fileHandler.getEmployeeById(employeeId); // Corrected: Was findEmployee
         if (employee == null) {
-            System.out.println("Employee not found!");
-            return;
+            return PayrollReport.unavailable(null, month, weekNumber, "Employee not found!");
         }
 
-        List<Attendance> records = fileHandler.getAllAttendanceRecords().stream()
+        return computeReport(employee, month, weekNumber, fileHandler.getAllAttendanceRecords());
+    }
+
+
+    /**
+     * Builds the payroll report for an employee from already loaded attendance.
+     * The records may contain other employees and months; they are filtered here.
+     */
+    public PayrollReport computeReport(Employee employee, YearMonth month, int weekNumber, List<Attendance> allRecords) {
+        return computeReport(employee, month, weekNumber, allRecords, week -> {});
+    }
+
+
+    private PayrollReport computeReport(Employee employee, YearMonth month, int weekNumber, List<Attendance> allRecords,
+                                        Consumer<WeeklyPayroll> weekListener) {
+        String employeeId = employee.getEmployeeId();
+        List<Attendance> records = allRecords.stream()
                 .filter(r -> r.getEmployeeId().equals(employeeId))
                 .filter(r -> YearMonth.from(r.getDate()).equals(month))
                 .sorted(Comparator.comparing(Attendance::getDate)) // Sort by date
                 .collect(Collectors.toList());
 
         if (records.isEmpty()) {
-            System.out.println("No attendance records found for " + month);
-            return;
+            return PayrollReport.unavailable(employee, month, weekNumber, "No attendance records found for " + month);
         }
 
-        // Group records by ISO week of month
+        // Group records by ISO week of month through the shared pay-period calendar
         Map<Integer, List<Attendance>> weeklyData = records.stream()
-                .collect(Collectors.groupingBy(
-                    // Use ISO week fields for consistency
-                    r -> r.getDate().get(WeekFields.ISO.weekOfMonth())
-                ));
+                .collect(Collectors.groupingBy(r -> PayPeriodCalendar.weekOfMonth(r.getDate())));
 
-        printPayrollReport(employee, weeklyData, month, weekNumber);
+        List<WeeklyPayroll> weeks = new ArrayList<>();
+        if (weekNumber == 0) { // Process all weeks
+            // Sort weeks by their number
+            weeklyData.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .forEach(entry -> {
+                    WeeklyPayroll week = computeWeek(employee, entry.getKey(), entry.getValue());
+                    weeks.add(week);
+                    weekListener.accept(week);
+                });
+        } else if (weeklyData.containsKey(weekNumber)) { // Process a specific week
+            WeeklyPayroll week = computeWeek(employee, weekNumber, weeklyData.get(weekNumber));
+            weeks.add(week);
+            weekListener.accept(week);
+        }
+        return new PayrollReport(employee, month, weekNumber, weeks);
     }
 
 
     /**
-     * Prints a formatted payroll report for one or all weeks in the selected month.
+     * Returns the version of the rates, multipliers and contribution tables
+     * used by this calculator, including the holiday calendar, attendance rules
+     * and the year-to-date ledger that withholding is annualized against.
+     * Cached results are keyed on it.
      */
-    private void printPayrollReport(Employee employee, Map<Integer, List<Attendance>> weeklyData,
-                                   YearMonth month, int weekNumber) {
-        System.out.println("\n-------------------------------");
-        System.out.println("       PAYROLL REPORT");
-        System.out.println("-------------------------------");
-        System.out.printf("Employee: %s, %s (%s)\n",
-                employee.getLastName(), employee.getFirstName(), employee.getEmployeeId());
-        System.out.println("Month: " + month.format(DateTimeFormatter.ofPattern("MMMM yyyy")));
+    public int getRateTableVersion() {
+        return Objects.hash(RATE_TABLE_VERSION, regularDayOtMultiplier, restDayOtMultiplier,
+                HolidayCalendar.getVersion(), AttendanceRules.current().getVersion(),
+                ledger.getVersion());
+    }
 
-        if (weekNumber == 0) { // Process all weeks
-            // Sort weeks by their number before printing
-            weeklyData.entrySet().stream()
-                .sorted(Map.Entry.comparingByKey())
-                .forEach(entry -> printWeekDetails(entry.getKey(), entry.getValue()));
-        } else { // Process a specific week
-            if (weeklyData.containsKey(weekNumber)) {
-                printWeekDetails(weekNumber, weeklyData.get(weekNumber));
-            } else {
-                System.out.println("No attendance data found for week " + weekNumber + " in " + month);
-            }
-        }
+    /**
+     * The year-to-date ledger withholding is annualized against.
+     */
+    public YearToDateLedger getLedger() {
+        return ledger;
+    }
+
+    public int getRegularDayOtMultiplier() {
+        return regularDayOtMultiplier;
+    }
+
+    public int getRestDayOtMultiplier() {
+        return restDayOtMultiplier;
     }
 
 
     /**
-     * Calculates and prints payroll details for a specific week.
+     * Formats a payroll report for one or all weeks in the selected month.
      */
-    private void printWeekDetails(int weekNumber, List<Attendance> records) {
-        // Ensure records are not empty and belong to a valid employee
-        if (records == null || records.isEmpty()) {
-            System.out.println("No records to process for week " + weekNumber);
-            return;
+    public String formatPayrollReport(PayrollReport report) {
+        StringBuilder sb = new StringBuilder();
+        Employee employee = report.getEmployee();
+        if (!report.isAvailable()) {
+            sb.append(report.getMessage()).append("\n");
+            return sb.toString();
         }
-        Employee employee = fileHandler.getEmployeeById(records.get(0).getEmployeeId()); // Corrected: Was findEmployee
-        if (employee == null) {
-            System.out.println("Employee details not found for records in week " + weekNumber);
-            return; // Cannot proceed without employee details
+
+        sb.append(formatPayrollHeader(employee, report.getMonth()));
+
+        if (report.getWeekNumber() != 0 && report.getWeeks().isEmpty()) {
+            sb.append("No attendance data found for week ").append(report.getWeekNumber())
+              .append(" in ").append(report.getMonth()).append("\n");
         }
+        for (WeeklyPayroll week : report.getWeeks()) {
+            appendWeekDetails(sb, week);
+        }
+        return sb.toString();
+    }
 
 
-        double totalRegularHours = 0;
-        double totalOvertimeHours = 0; // This will store the sum of raw overtime hours
-        int totalLateMinutes = 0;
+    /**
+     * The title block that starts every payroll report.
+     */
+    public String formatPayrollHeader(Employee employee, YearMonth month) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("\n-------------------------------\n");
+        sb.append("       PAYROLL REPORT\n");
+        sb.append("-------------------------------\n");
+        sb.append(String.format("Employee: %s, %s (%s)\n",
+                employee.getLastName(), employee.getFirstName(), employee.getEmployeeId()));
+        sb.append("Month: ").append(month.format(DateTimeFormatter.ofPattern("MMMM yyyy"))).append("\n");
+        return sb.toString();
+    }
 
-   
-        Map<Boolean, Double> overtimeHoursByType = new HashMap<>();
-        overtimeHoursByType.put(true, 0.0);  
-        overtimeHoursByType.put(false, 0.0); 
+
+    /**
+     * One week's section of a payroll report, as formatPayrollReport prints it.
+     */
+    public String formatWeek(WeeklyPayroll week) {
+        StringBuilder sb = new StringBuilder();
+        appendWeekDetails(sb, week);
+        return sb.toString();
+    }
+
+
+    /**
+     * Calculates payroll details for a specific week.
+     * All arithmetic is done by PayrollKernel in minutes and centavos.
+     */
+    public WeeklyPayroll computeWeek(Employee employee, int weekNumber, List<Attendance> records) {
+        // Resolve the employee's attendance rule once
+        AttendanceRules rules = AttendanceRules.current();
+        int rule = rules.ruleFor(employee);
+        PunchAggregator.Totals totals = sumPunches(records, rules, rule);
+        return buildWeek(employee, weekNumber,
+                records.get(0).getDate(), records.get(records.size() - 1).getDate(), totals, rules, rule);
+    }
+
+
+    // Minute totals of the punches one at a time through PayrollKernel
+    private static PunchAggregator.Totals sumPunches(List<Attendance> records, AttendanceRules rules, int rule) {
+        PunchAggregator.Totals totals = new PunchAggregator.Totals();
+        int regularMinutesPerDay = rules.getRegularMinutes(rule);
+        int shiftStart = rules.getShiftStart(rule);
+        int shiftEnd = rules.getShiftEnd(rule);
+        int grace = rules.getGraceMinutes(rule);
+        int nightStart = rules.getNightStart(rule);
+        int nightEnd = rules.getNightEnd(rule);
 
         for (Attendance record : records) {
-            totalRegularHours += calculateRegularHours(record.getTimeIn(), record.getTimeOut());
-            double dailyOvertimeHours = calculateOvertimeHours(record.getDate(), record.getTimeIn(), record.getTimeOut());
-            totalLateMinutes += calculateLateMinutes(record.getTimeIn());
+            int timeIn = PayrollKernel.minuteOfDay(record.getTimeIn());
+            int timeOut = PayrollKernel.minuteOfDay(record.getTimeOut());
+            int workedMinutes = timeOut - timeIn;
+
+            totals.workedMinutes += workedMinutes;
+            totals.regularMinutes += PayrollKernel.regularMinutes(workedMinutes, regularMinutesPerDay);
+            totals.lateMinutes += PayrollKernel.lateMinutes(timeIn, shiftStart, grace);
+            totals.undertimeMinutes += PayrollKernel.undertimeMinutes(timeOut, shiftEnd);
+            totals.nightMinutes += PayrollKernel.nightMinutes(timeIn, timeOut, nightStart, nightEnd);
+
+            int overtimeMinutes = PayrollKernel.overtimeMinutes(workedMinutes, regularMinutesPerDay);
+            // Overtime on rest days is paid at 1.30x instead of 1.25x
+            if (PayPeriodCalendar.isRestDay(record.getDate())) {
+                totals.restDayOvertimeMinutes += overtimeMinutes;
+            } else {
+                totals.regularDayOvertimeMinutes += overtimeMinutes;
+            }
+
+            int holiday = HolidayCalendar.holidayType(record.getDate());
+            if (holiday == HolidayCalendar.REGULAR) {
+                totals.regularHolidayMinutes += workedMinutes;
+            } else if (holiday == HolidayCalendar.SPECIAL) {
+                totals.specialHolidayMinutes += workedMinutes;
+            }
+        }
+        return totals;
+    }
+
 
-         
-            DayOfWeek dayOfWeek = record.getDate().getDayOfWeek();
-            boolean isRestDay = (dayOfWeek == DayOfWeek.SATURDAY || dayOfWeek == DayOfWeek.SUNDAY);
+    /**
+     * Calculates every employee's weeks for a month in one pass over the attendance.
+     * Punches are laid out in columns and each employee-week block is summed by
+     * PunchAggregator, which is what makes company-wide runs cheap.
+     * Returns the weeks keyed by employee ID, in employee ID order.
+     */
+    public Map<String, List<WeeklyPayroll>> computeMonthForAllEmployees(YearMonth month,
+                                                                         List<Employee> employees,
+                                                                         List<Attendance> allRecords) {
+        Map<String, Employee> employeesById = new HashMap<>();
+        for (Employee employee : employees) {
+            employeesById.put(employee.getEmployeeId(), employee);
+        }
 
-  
-            if (dailyOvertimeHours > 0) {
-                overtimeHoursByType.put(isRestDay, overtimeHoursByType.get(isRestDay) + dailyOvertimeHours);
+        List<Attendance> monthRecords = allRecords.stream()
+                .filter(r -> YearMonth.from(r.getDate()).equals(month))
+                .filter(r -> employeesById.containsKey(r.getEmployeeId()))
+                .sorted(Comparator.comparing(Attendance::getEmployeeId).thenComparing(Attendance::getDate))
+                .collect(Collectors.toList());
+        AttendanceColumns columns = AttendanceColumns.of(monthRecords);
+        AttendanceRules rules = AttendanceRules.current();
+
+        Map<String, List<WeeklyPayroll>> result = new LinkedHashMap<>();
+        int from = 0;
+        while (from < columns.size()) {
+            String employeeId = columns.getEmployeeId(from);
+            int week = PayPeriodCalendar.weekOfMonth(columns.getDate(from));
+            int to = from + 1;
+            while (to < columns.size() && columns.getEmployeeId(to).equals(employeeId)
+                    && PayPeriodCalendar.weekOfMonth(columns.getDate(to)) == week) {
+                to++;
             }
+
+            Employee employee = employeesById.get(employeeId);
+            int rule = rules.ruleFor(employee);
+            PunchAggregator.Totals totals = PunchAggregator.aggregate(columns, from, to, rules, rule);
+            // With -ea, the block sum must match the per-punch path computeWeek takes
+            assert totals.equals(sumPunches(monthRecords.subList(from, to), rules, rule))
+                    : employeeId + " week " + week + ": " + totals + " != " + sumPunches(monthRecords.subList(from, to), rules, rule);
+            result.computeIfAbsent(employeeId, id -> new ArrayList<>())
+                  .add(buildWeek(employee, week, columns.getDate(from), columns.getDate(to - 1), totals, rules, rule));
+            from = to;
         }
-        
-        // Sum of all raw overtime hours
-        totalOvertimeHours = overtimeHoursByType.get(true) + overtimeHoursByType.get(false);
-
-
-        double regularPay = totalRegularHours * employee.getHourlyRate();
-        // Calculate OT pay using categorized OT hours and their respective multipliers
-        double regularDayOTPay = overtimeHoursByType.get(false) * employee.getHourlyRate() * REGULAR_DAY_OT_MULTIPLIER;
-        double restDayOTPay = overtimeHoursByType.get(true) * employee.getHourlyRate() * REST_DAY_OT_MULTIPLIER;
-        double totalOvertimePay = regularDayOTPay + restDayOTPay;
-
-        double lateDeduction = calculateLateDeduction(totalLateMinutes, employee.getHourlyRate());
-
-        // Calculate weekly allowances (assuming monthly allowances are divided by 4 for weekly estimate)
-        double weeklyAllowances = (employee.getRiceSubsidy() + employee.getPhoneAllowance() + employee.getClothingAllowance()) / 4;
-
-        // Calculate weekly government deductions (assuming monthly deductions are divided by 4)
-        double weeklySSS = calculateSSS(employee.getBasicSalary()) / 4; // BasicSalary should be monthly
-        double weeklyPhilHealth = calculatePhilHealth(employee.getBasicSalary()) / 4;
-        double weeklyPagIBIG = calculatePagIBIG(employee.getBasicSalary()) / 4;
-        double weeklyWithholdingTax = calculateWithholdingTax(
-                employee.getBasicSalary(), // Pass monthly salary for tax calculation context
-                weeklySSS * 4, 
-                weeklyPhilHealth * 4,
-                weeklyPagIBIG * 4
-        ) / 4; // Then divide the monthly tax by 4 for weekly share
-
-        double weeklyGovernmentDeductions = weeklySSS + weeklyPhilHealth + weeklyPagIBIG + weeklyWithholdingTax;
-
-
-        double grossPay = regularPay + totalOvertimePay + weeklyAllowances;
-        double totalDeductions = weeklyGovernmentDeductions + lateDeduction;
-        double netPay = grossPay - totalDeductions;
-
-        System.out.println("\n-------------------------------");
-        System.out.printf("Week %d (%s to %s)\n",
-                weekNumber,
-                records.get(0).getDate().format(DateTimeFormatter.ISO_LOCAL_DATE),
-                records.get(records.size()-1).getDate().format(DateTimeFormatter.ISO_LOCAL_DATE));
-        System.out.println("-------------------------------");
-        System.out.printf("Worked Hours: %.2f hours\n", totalRegularHours);
-        System.out.printf("Late: %d minutes\n", totalLateMinutes);
-        System.out.printf("Overtime: %.2f hours\n", totalOvertimeHours); 
-        System.out.printf("Allowances: PHP %,.2f\n", weeklyAllowances);
-        System.out.printf("Government Deductions: PHP %,.2f\n", weeklyGovernmentDeductions);
-        System.out.println("-------------------------------");
-        System.out.printf("Gross Weekly Pay: PHP %,.2f\n", grossPay);
-        System.out.printf("Total Deductions: PHP %,.2f\n", totalDeductions);
-        System.out.printf("Net Weekly Pay: PHP %,.2f\n", netPay);
+        return result;
+    }
+
+
+    /**
+     * Turns the minute totals of one week into pay, allowances and deductions.
+     */
+    private WeeklyPayroll buildWeek(Employee employee, int weekNumber, LocalDate startDate, LocalDate endDate,
+                                    PunchAggregator.Totals totals, AttendanceRules rules, int rule) {
+        int regularMinutes = totals.regularMinutes;
+        int regularDayOvertimeMinutes = totals.regularDayOvertimeMinutes;
+        int restDayOvertimeMinutes = totals.restDayOvertimeMinutes;
+        int lateMinutes = totals.lateMinutes;
+
+        long hourlyRate = PayrollKernel.toCentavos(employee.getHourlyRate());
+        long regularPay = PayrollKernel.pay(regularMinutes, hourlyRate, 100);
+        // Calculate OT pay using categorized OT minutes and their respective multipliers
+        long overtimePay = PayrollKernel.pay(regularDayOvertimeMinutes, hourlyRate, regularDayOtMultiplier)
+                + PayrollKernel.pay(restDayOvertimeMinutes, hourlyRate, restDayOtMultiplier);
+        long holidayPay = PayrollKernel.pay(totals.regularHolidayMinutes, hourlyRate, REGULAR_HOLIDAY_PREMIUM)
+                + PayrollKernel.pay(totals.specialHolidayMinutes, hourlyRate, SPECIAL_HOLIDAY_PREMIUM);
+        long nightDifferentialPay = PayrollKernel.pay(totals.nightMinutes, hourlyRate, rules.getNightPremium(rule));
+        long lateDeduction = PayrollKernel.pay(lateMinutes, hourlyRate, 100);
+        // Undertime is always recorded but only deducted where the position's rule says so
+        long undertimeDeduction = rules.isUndertimeDeducted(rule)
+                ? PayrollKernel.pay(totals.undertimeMinutes, hourlyRate, 100) : 0;
+
+        // Monthly allowances and deductions are divided by 4 for the weekly share
+        long weeklyAllowances = PayrollKernel.weeklyShare(PayrollKernel.toCentavos(employee.getRiceSubsidy())
+                + PayrollKernel.toCentavos(employee.getPhoneAllowance())
+                + PayrollKernel.toCentavos(employee.getClothingAllowance()));
+
+        long monthlySalary = PayrollKernel.toCentavos(employee.getBasicSalary());
+        long monthlySSS = PayrollKernel.sss(monthlySalary);
+        long monthlyPhilHealth = PayrollKernel.philHealth(monthlySalary);
+        long monthlyPagIBIG = PayrollKernel.pagIbig(monthlySalary);
+        long monthlyTaxable = monthlySalary - (monthlySSS + monthlyPhilHealth + monthlyPagIBIG);
+        // Annualized against the months already posted to the ledger
+        long monthlyTax = ledger.annualizedTaxDue(employee.getEmployeeId(), YearMonth.from(startDate), monthlyTaxable);
+
+        return new WeeklyPayroll(weekNumber, startDate, endDate,
+                regularMinutes, regularDayOvertimeMinutes, restDayOvertimeMinutes, lateMinutes,
+                totals.regularHolidayMinutes, totals.specialHolidayMinutes,
+                totals.undertimeMinutes, totals.nightMinutes,
+                regularPay, overtimePay, holidayPay, nightDifferentialPay, weeklyAllowances,
+                lateDeduction, undertimeDeduction,
+                PayrollKernel.weeklyShare(monthlySSS), PayrollKernel.weeklyShare(monthlyPhilHealth),
+                PayrollKernel.weeklyShare(monthlyPagIBIG), PayrollKernel.weeklyShare(monthlyTax));
+    }
+
+
+    private void appendWeekDetails(StringBuilder sb, WeeklyPayroll week) {
+        sb.append("\n-------------------------------\n");
+        sb.append(String.format("Week %d (%s to %s)\n",
+                week.getWeekNumber(),
+                week.getStartDate().format(DateTimeFormatter.ISO_LOCAL_DATE),
+                week.getEndDate().format(DateTimeFormatter.ISO_LOCAL_DATE)));
+        sb.append("-------------------------------\n");
+        sb.append(String.format("Worked Hours: %.2f hours\n", week.getRegularHours()));
+        sb.append(String.format("Late: %d minutes\n", week.getLateMinutes()));
+        sb.append(String.format("Overtime: %.2f hours\n", week.getOvertimeHours()));
+        if (week.getHolidayPay() > 0) {
+            sb.append(String.format("Holiday Premium: PHP %,.2f\n", PayrollKernel.toPesos(week.getHolidayPay())));
+        }
+        if (week.getNightDifferentialPay() > 0) {
+            sb.append(String.format("Night Differential: PHP %,.2f\n", PayrollKernel.toPesos(week.getNightDifferentialPay())));
+        }
+        if (week.getUndertimeDeduction() > 0) {
+            sb.append(String.format("Undertime Deduction: PHP %,.2f\n", PayrollKernel.toPesos(week.getUndertimeDeduction())));
+        }
+        sb.append(String.format("Allowances: PHP %,.2f\n", PayrollKernel.toPesos(week.getAllowances())));
+        sb.append(String.format("Government Deductions: PHP %,.2f\n", PayrollKernel.toPesos(week.getGovernmentDeductions())));
+        sb.append("-------------------------------\n");
+        sb.append(String.format("Gross Weekly Pay: PHP %,.2f\n", PayrollKernel.toPesos(week.getGrossPay())));
+        sb.append(String.format("Total Deductions: PHP %,.2f\n", PayrollKernel.toPesos(week.getTotalDeductions())));
+        sb.append(String.format("Net Weekly Pay: PHP %,.2f\n", PayrollKernel.toPesos(week.getNetPay())));
     }
 
 
@@ -361,18 +467,4 @@ public class PayrollCalculator {
     public void calculateWeeklyPayroll(String employeeId, YearMonth month, int weekNumber) {
         processPayroll(employeeId, month, weekNumber);
     }
-
-    /**
-     * Calculates weekly payroll for all employees.
-     */
-    public void calculateAllWeeklyPayroll(YearMonth month, int weekNumber) {
-        List<Employee> employees = fileHandler.readEmployees();
-        if (employees.isEmpty()) {
-            System.out.println("No employees found!");
-            return;
-        }
-        for (Employee employee : employees) {
-            processPayroll(employee.getEmployeeId(), month, weekNumber);
-        }
-    }
 }
\ No newline at end of file
@@ -0,0 +1,185 @@
+package motorph;
+
+import java.time.LocalTime;
+
+/**
+ * Fixed-point arithmetic used by the payroll calculation.
+ *
+ * Time is counted in whole minutes and money in centavos ({@code long}),
+ * so every run produces the same result to the centavo on any platform.
+ * Methods take and return primitives only and allocate nothing, which keeps
+ * the per-punch loop free of boxing and temporary objects.
+ *
+ * Rounding rule: every division that produces money rounds half up to the
+ * nearest centavo. Multipliers are expressed in percent (125 = 1.25x).
+ */
+public final class PayrollKernel {
+
+    public static final int MINUTES_PER_HOUR = 60;
+    public static final int MINUTES_PER_DAY = 24 * MINUTES_PER_HOUR;
+    public static final long CENTAVOS_PER_PESO = 100;
+
+    private PayrollKernel() {}
+
+    // -------------------------------------------------------------------------
+    // Time
+    // -------------------------------------------------------------------------
+
+    /**
+     * Minute of the day (0-1439) for a punch time, without creating objects.
+     */
+    public static int minuteOfDay(LocalTime time) {
+        return time.getHour() * MINUTES_PER_HOUR + time.getMinute();
+    }
+
+    /**
+     * Minutes counted as regular work for one day, capped at the regular day length.
+     */
+    public static int regularMinutes(int workedMinutes, int regularMinutesPerDay) {
+        return Math.min(workedMinutes, regularMinutesPerDay);
+    }
+
+    /**
+     * Minutes worked beyond the regular day length (never negative).
+     */
+    public static int overtimeMinutes(int workedMinutes, int regularMinutesPerDay) {
+        return Math.max(0, workedMinutes - regularMinutesPerDay);
+    }
+
+    /**
+     * Minutes late measured from the shift start, or 0 when the punch falls within the grace period.
+     */
+    public static int lateMinutes(int timeInMinute, int shiftStartMinute, int graceMinutes) {
+        return timeInMinute > shiftStartMinute + graceMinutes ? timeInMinute - shiftStartMinute : 0;
+    }
+
+    /**
+     * Minutes left before the shift end when clocking out early (never negative).
+     * The shift ends on the day it starts; AttendanceRules rejects any other.
+     */
+    public static int undertimeMinutes(int timeOutMinute, int shiftEndMinute) {
+        return Math.max(0, shiftEndMinute - timeOutMinute);
+    }
+
+    /**
+     * Minutes of [timeIn, timeOut) that fall in the night window. The window may
+     * wrap past midnight (e.g. 22:00 to 6:00).
+     */
+    public static int nightMinutes(int timeInMinute, int timeOutMinute, int nightStartMinute, int nightEndMinute) {
+        if (nightStartMinute <= nightEndMinute) {
+            return overlap(timeInMinute, timeOutMinute, nightStartMinute, nightEndMinute);
+        }
+        return overlap(timeInMinute, timeOutMinute, nightStartMinute, MINUTES_PER_DAY)
+                + overlap(timeInMinute, timeOutMinute, 0, nightEndMinute);
+    }
+
+    /**
+     * Length of the overlap of [start1, end1) and [start2, end2).
+     */
+    public static int overlap(int start1, int end1, int start2, int end2) {
+        return Math.max(0, Math.min(end1, end2) - Math.max(start1, start2));
+    }
+
+    // -------------------------------------------------------------------------
+    // Money
+    // -------------------------------------------------------------------------
+
+    /**
+     * Converts a peso amount read from the data files to centavos, rounding half up.
+     */
+    public static long toCentavos(double pesos) {
+        return Math.round(pesos * CENTAVOS_PER_PESO);
+    }
+
+    /**
+     * Converts centavos back to pesos for display.
+     */
+    public static double toPesos(long centavos) {
+        return centavos / (double) CENTAVOS_PER_PESO;
+    }
+
+    /**
+     * Integer division rounding half up (away from zero for negative numerators).
+     */
+    public static long divideRoundHalfUp(long numerator, long denominator) {
+        if (numerator >= 0) {
+            return (numerator + denominator / 2) / denominator;
+        }
+        return -((-numerator + denominator / 2) / denominator);
+    }
+
+    /**
+     * Pay for a number of minutes at an hourly rate and a percent multiplier.
+     */
+    public static long pay(int minutes, long hourlyRateCentavos, int multiplierPercent) {
+        return divideRoundHalfUp(minutes * hourlyRateCentavos * multiplierPercent, MINUTES_PER_HOUR * 100L);
+    }
+
+    /**
+     * Applies a percentage to an amount in centavos, rounding half up.
+     * The percentage is given in hundredths of a percent (150 = 1.5%).
+     */
+    public static long percentOf(long centavos, int basisPoints) {
+        return divideRoundHalfUp(centavos * basisPoints, 10_000L);
+    }
+
+    // -------------------------------------------------------------------------
+    // Government contributions (2023 rates, employee share, monthly amounts)
+    // -------------------------------------------------------------------------
+
+    /**
+     * SSS contribution. Brackets are PHP 500 wide starting at PHP 3,250,
+     * each adding PHP 22.50 on top of the PHP 135.00 minimum, up to PHP 1,125.00.
+     */
+    public static long sss(long monthlySalaryCentavos) {
+        if (monthlySalaryCentavos < 325_000L) return 13_500L;
+        if (monthlySalaryCentavos > 2_475_000L) return 112_500L; // Max contribution
+        long bracket = Math.max(1, (monthlySalaryCentavos - 325_000L + 49_999L) / 50_000L);
+        return 13_500L + bracket * 2_250L;
+    }
+
+    /**
+     * PhilHealth contribution: PHP 150 up to PHP 10,000, 1.5% below PHP 60,000, capped at PHP 900.
+     */
+    public static long philHealth(long monthlySalaryCentavos) {
+        if (monthlySalaryCentavos <= 1_000_000L) return 15_000L;
+        if (monthlySalaryCentavos < 6_000_000L) return percentOf(monthlySalaryCentavos, 150);
+        return 90_000L;
+    }
+
+    /**
+     * Pag-IBIG contribution: 1% up to PHP 1,500, otherwise 2% capped at PHP 100.
+     */
+    public static long pagIbig(long monthlySalaryCentavos) {
+        if (monthlySalaryCentavos <= 150_000L) return percentOf(monthlySalaryCentavos, 100);
+        return Math.min(percentOf(monthlySalaryCentavos, 200), 10_000L);
+    }
+
+    /**
+     * Monthly withholding tax on taxable income (salary minus mandatory contributions).
+     */
+    public static long withholdingTax(long taxableIncomeCentavos) {
+        long t = taxableIncomeCentavos;
+        if (t <= 2_083_300L) return 0L;
+        if (t <= 3_333_300L) return percentOf(t - 2_083_300L, 2_000);
+        if (t <= 6_666_700L) return 250_000L + percentOf(t - 3_333_300L, 2_500);
+        if (t <= 16_666_700L) return 1_083_300L + percentOf(t - 6_666_700L, 3_000);
+        if (t <= 66_666_700L) return 4_083_333L + percentOf(t - 16_666_700L, 3_200);
+        return 20_083_333L + percentOf(t - 66_666_700L, 3_500);
+    }
+
+    /**
+     * Annual withholding tax on annual taxable income, using the monthly table
+     * scaled to twelve months so annualized and monthly withholding agree.
+     */
+    public static long annualWithholdingTax(long annualTaxableCentavos) {
+        return withholdingTax(divideRoundHalfUp(annualTaxableCentavos, 12)) * 12;
+    }
+
+    /**
+     * Splits a monthly amount into its weekly share (a month is treated as four weeks).
+     */
+    public static long weeklyShare(long monthlyCentavos) {
+        return divideRoundHalfUp(monthlyCentavos, 4);
+    }
+}
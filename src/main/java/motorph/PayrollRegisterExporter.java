@@ -0,0 +1,137 @@
+package motorph;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.time.YearMonth;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Exports the company-wide payroll register as CSV, one row per employee-week.
+ * Rows are written to a buffered writer as soon as each employee is computed,
+ * in a single pass and without collecting the register in memory first.
+ * Amounts are plain pesos with two decimals (no thousands separators).
+ */
+public class PayrollRegisterExporter {
+
+    public static final String HEADER = "Employee #,Last Name,First Name,Month,Week,Start Date,End Date,"
+            + "Regular Hours,Overtime Hours,Late Minutes,Regular Pay,Overtime Pay,Holiday Pay,Night Differential,Allowances,Gross Pay,"
+            + "SSS,PhilHealth,Pag-IBIG,Withholding Tax,Late Deduction,Undertime Deduction,Total Deductions,Net Pay";
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final FileHandler fileHandler;
+    private final PayrollCalculator calculator;
+
+    public PayrollRegisterExporter(FileHandler fileHandler, PayrollCalculator calculator) {
+        this.fileHandler = fileHandler;
+        this.calculator = calculator;
+    }
+
+    /**
+     * Writes the register for the given months to a CSV file. Returns the number of rows written.
+     */
+    public int export(List<YearMonth> months, File outputFile) throws IOException {
+        if (outputFile.getParentFile() != null) {
+            Files.createDirectories(outputFile.getParentFile().toPath());
+        }
+        try (Writer writer = new BufferedWriter(new FileWriter(outputFile), BUFFER_SIZE)) {
+            return export(months, writer);
+        }
+    }
+
+    /**
+     * Streams the register for the given months to a writer. Returns the number of rows written.
+     */
+    public int export(List<YearMonth> months, Writer writer) throws IOException {
+        List<Employee> employees = fileHandler.readEmployees();
+        // Month -> employee ID -> that employee's punches in the month
+        Map<YearMonth, Map<String, List<Attendance>>> records = fileHandler.getAllAttendanceRecords(FileHandler.employeeIds(employees)).stream()
+                .filter(r -> months.contains(YearMonth.from(r.getDate())))
+                .collect(Collectors.groupingBy(r -> YearMonth.from(r.getDate()), TreeMap::new,
+                        Collectors.groupingBy(Attendance::getEmployeeId)));
+
+        writer.write(HEADER);
+        writer.write('\n');
+
+        StringBuilder row = new StringBuilder(256);
+        int rows = 0;
+        for (Map.Entry<YearMonth, Map<String, List<Attendance>>> monthEntry : records.entrySet()) {
+            YearMonth month = monthEntry.getKey();
+            for (Employee employee : employees) {
+                List<Attendance> employeeRecords = monthEntry.getValue().get(employee.getEmployeeId());
+                if (employeeRecords == null) {
+                    continue;
+                }
+                List<WeeklyPayroll> weeks = calculator.computeMonthForAllEmployees(
+                        month, Collections.singletonList(employee), employeeRecords)
+                        .getOrDefault(employee.getEmployeeId(), Collections.emptyList());
+                for (WeeklyPayroll week : weeks) {
+                    row.setLength(0);
+                    appendRow(row, employee, month, week);
+                    writer.append(row);
+                    rows++;
+                }
+            }
+        }
+        return rows;
+    }
+
+    private void appendRow(StringBuilder sb, Employee employee, YearMonth month, WeeklyPayroll week) {
+        appendText(sb, employee.getEmployeeId()).append(',');
+        appendText(sb, employee.getLastName()).append(',');
+        appendText(sb, employee.getFirstName()).append(',');
+        sb.append(month).append(',');
+        sb.append(week.getWeekNumber()).append(',');
+        sb.append(week.getStartDate()).append(',');
+        sb.append(week.getEndDate()).append(',');
+        MoneyFormat.appendHours(sb, week.getRegularMinutes()).append(',');
+        MoneyFormat.appendHours(sb, week.getOvertimeMinutes()).append(',');
+        sb.append(week.getLateMinutes()).append(',');
+        MoneyFormat.append(sb, week.getRegularPay(), false).append(',');
+        MoneyFormat.append(sb, week.getOvertimePay(), false).append(',');
+        MoneyFormat.append(sb, week.getHolidayPay(), false).append(',');
+        MoneyFormat.append(sb, week.getNightDifferentialPay(), false).append(',');
+        MoneyFormat.append(sb, week.getAllowances(), false).append(',');
+        MoneyFormat.append(sb, week.getGrossPay(), false).append(',');
+        MoneyFormat.append(sb, week.getSss(), false).append(',');
+        MoneyFormat.append(sb, week.getPhilHealth(), false).append(',');
+        MoneyFormat.append(sb, week.getPagIbig(), false).append(',');
+        MoneyFormat.append(sb, week.getWithholdingTax(), false).append(',');
+        MoneyFormat.append(sb, week.getLateDeduction(), false).append(',');
+        MoneyFormat.append(sb, week.getUndertimeDeduction(), false).append(',');
+        MoneyFormat.append(sb, week.getTotalDeductions(), false).append(',');
+        MoneyFormat.append(sb, week.getNetPay(), false).append('\n');
+    }
+
+    // Quotes a text cell only when it contains a comma, quote or line break
+    private StringBuilder appendText(StringBuilder sb, String value) {
+        if (value == null) {
+            return sb;
+        }
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            return sb.append(value);
+        }
+        sb.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                sb.append('"');
+            }
+            sb.append(c);
+        }
+        return sb.append('"');
+    }
+}
@@ -0,0 +1,47 @@
+package motorph;
+
+import java.time.YearMonth;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The result of a payroll calculation for one employee, month and week selection.
+ * Week number 0 means all weeks of the month.
+ * When no payroll could be computed, the report carries a message instead of weeks.
+ */
+public class PayrollReport {
+    private final Employee employee;
+    private final YearMonth month;
+    private final int weekNumber;
+    private final List<WeeklyPayroll> weeks;
+    private final String message;
+
+    public PayrollReport(Employee employee, YearMonth month, int weekNumber, List<WeeklyPayroll> weeks) {
+        this(employee, month, weekNumber, weeks, null);
+    }
+
+    private PayrollReport(Employee employee, YearMonth month, int weekNumber, List<WeeklyPayroll> weeks, String message) {
+        this.employee = employee;
+        this.month = month;
+        this.weekNumber = weekNumber;
+        this.weeks = Collections.unmodifiableList(weeks);
+        this.message = message;
+    }
+
+    /**
+     * Creates a report that could not be computed, e.g. unknown employee or no attendance.
+     */
+    public static PayrollReport unavailable(Employee employee, YearMonth month, int weekNumber, String message) {
+        return new PayrollReport(employee, month, weekNumber, Collections.emptyList(), message);
+    }
+
+    public Employee getEmployee() { return employee; }
+    public YearMonth getMonth() { return month; }
+    public int getWeekNumber() { return weekNumber; }
+    public List<WeeklyPayroll> getWeeks() { return weeks; }
+    public String getMessage() { return message; }
+
+    public boolean isAvailable() {
+        return message == null;
+    }
+}
@@ -0,0 +1,143 @@
+package motorph;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Size-bounded LRU cache of payroll reports keyed by
+ * (employee ID, month, week, rate-table version).
+ *
+ * Entries are dropped as soon as FileHandler reports a change to the
+ * employee record or to one of their punches inside the cached period,
+ * so a cached report is always the same as a fresh calculation. The owner
+ * registers the cache with FileHandler.addDataChangeListener and calls
+ * {@link #close} when it is done with it.
+ */
+public class PayrollResultCache implements DataChangeListener {
+
+    public static final int DEFAULT_MAX_ENTRIES = 512;
+
+    private final int maxEntries;
+    private final LinkedHashMap<Key, PayrollReport> entries;
+
+    // Bumped on every invalidation so results computed from stale data are never stored
+    private long generation;
+
+    public PayrollResultCache() {
+        this(DEFAULT_MAX_ENTRIES);
+    }
+
+    public PayrollResultCache(int maxEntries) {
+        this.maxEntries = maxEntries;
+        // Access-ordered so the eldest entry is always the least recently used one
+        this.entries = new LinkedHashMap<Key, PayrollReport>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, PayrollReport> eldest) {
+                return size() > PayrollResultCache.this.maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Stops listening for data changes and drops every entry.
+     */
+    public void close() {
+        FileHandler.removeDataChangeListener(this);
+        clear();
+    }
+
+    public synchronized PayrollReport get(String employeeId, YearMonth month, int weekNumber, int rateTableVersion) {
+        return entries.get(new Key(employeeId, month, weekNumber, rateTableVersion));
+    }
+
+    /**
+     * Returns the current generation. Take it before reading data for a calculation
+     * and hand it back to {@link #put} so results raced by a change are discarded.
+     */
+    public synchronized long getGeneration() {
+        return generation;
+    }
+
+    public synchronized void put(String employeeId, YearMonth month, int weekNumber, int rateTableVersion,
+                                 PayrollReport report, long generationAtStart) {
+        if (generationAtStart != generation) {
+            return;
+        }
+        entries.put(new Key(employeeId, month, weekNumber, rateTableVersion), report);
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        generation++;
+    }
+
+    @Override
+    public synchronized void employeeChanged(Employee previous, Employee current) {
+        String employeeId = previous != null ? previous.getEmployeeId() : current.getEmployeeId();
+        generation++;
+        entries.keySet().removeIf(key -> key.employeeId.equals(employeeId));
+    }
+
+    @Override
+    public synchronized void attendanceChanged(Attendance previous, Attendance current) {
+        generation++;
+        if (previous != null) {
+            invalidatePeriod(previous.getEmployeeId(), previous.getDate());
+        }
+        if (current != null) {
+            invalidatePeriod(current.getEmployeeId(), current.getDate());
+        }
+    }
+
+    // Drops the "all weeks" entry and the single-week entry that contain the given date
+    private void invalidatePeriod(String employeeId, LocalDate date) {
+        YearMonth month = YearMonth.from(date);
+        int week = PayPeriodCalendar.weekOfMonth(date);
+        Iterator<Key> it = entries.keySet().iterator();
+        while (it.hasNext()) {
+            Key key = it.next();
+            if (key.employeeId.equals(employeeId) && key.month.equals(month)
+                    && (key.weekNumber == 0 || key.weekNumber == week)) {
+                it.remove();
+            }
+        }
+    }
+
+    private static final class Key {
+        private final String employeeId;
+        private final YearMonth month;
+        private final int weekNumber;
+        private final int rateTableVersion;
+
+        Key(String employeeId, YearMonth month, int weekNumber, int rateTableVersion) {
+            this.employeeId = employeeId;
+            this.month = month;
+            this.weekNumber = weekNumber;
+            this.rateTableVersion = rateTableVersion;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key other = (Key) o;
+            return weekNumber == other.weekNumber
+                    && rateTableVersion == other.rateTableVersion
+                    && employeeId.equals(other.employeeId)
+                    && month.equals(other.month);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(employeeId, month, weekNumber, rateTableVersion);
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package motorph;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.YearMonth;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Runs payroll for every employee and records each finished employee in a run journal,
+ * so an interrupted run can be resumed from its last checkpoint instead of starting over.
+ *
+ * Journal lines (data/runs/payroll-yyyy-MM-wN.journal):
+ *   DONE,employeeId,gross,sss,philHealth,pagIbig,tax,net,taxable   (amounts in centavos)
+ *   FAILED,employeeId,message
+ *   COMPLETE
+ * Employees that failed are retried when the run is resumed.
+ *
+ * When a full-month run (week 0) completes, its DONE totals replace that month in the
+ * calculator's year-to-date ledger, so a corrected re-run supersedes the earlier one.
+ * Single-week runs are not posted, since they overlap the month.
+ *
+ * Only the console menu runs payroll through this class.
+ */
+public class PayrollRunManager {
+    private static final String RUNS_FOLDER = "runs";
+    private static final String DONE = "DONE";
+    private static final String FAILED = "FAILED";
+    private static final String COMPLETE = "COMPLETE";
+
+    private final FileHandler fileHandler;
+    private final PayrollCalculator calculator;
+
+    public PayrollRunManager(FileHandler fileHandler, PayrollCalculator calculator) {
+        this.fileHandler = fileHandler;
+        this.calculator = calculator;
+    }
+
+    public static String runId(YearMonth month, int weekNumber) {
+        return "payroll-" + month + "-w" + weekNumber;
+    }
+
+    public File getJournalFile(YearMonth month, int weekNumber) {
+        return new File(fileHandler.getDataFolderPath() + File.separator + RUNS_FOLDER
+                + File.separator + runId(month, weekNumber) + ".journal");
+    }
+
+    /**
+     * Checks whether a run was started for this period but never completed.
+     */
+    public boolean hasInterruptedRun(YearMonth month, int weekNumber) {
+        File journal = getJournalFile(month, weekNumber);
+        return journal.exists() && !readJournal(journal, new HashSet<>());
+    }
+
+    /**
+     * Runs (or resumes) payroll for all employees for a month/week (0 = all weeks).
+     * Each employee's report is handed to onReport as soon as it is computed and checkpointed;
+     * onProgress is called after every employee. Either callback may be null.
+     * A completed run is started afresh.
+     */
+    public RunProgress run(YearMonth month, int weekNumber,
+                           Consumer<PayrollReport> onReport, Consumer<RunProgress> onProgress) {
+        String runId = runId(month, weekNumber);
+        File journal = getJournalFile(month, weekNumber);
+        Set<String> finished = new HashSet<>();
+        boolean append = false;
+        if (journal.exists()) {
+            boolean complete = readJournal(journal, finished);
+            if (complete) {
+                finished.clear();
+            } else {
+                append = true;
+            }
+        }
+
+        List<Employee> employees = fileHandler.readEmployees();
+        List<Attendance> records = fileHandler.getAllAttendanceRecords(FileHandler.employeeIds(employees));
+        int total = employees.size();
+        int resumed = 0;
+        for (Employee employee : employees) {
+            if (finished.contains(employee.getEmployeeId())) {
+                resumed++;
+            }
+        }
+        int done = resumed;
+        int failed = 0;
+        long start = System.currentTimeMillis();
+
+        try {
+            Files.createDirectories(journal.getParentFile().toPath());
+        } catch (IOException e) {
+            System.err.println("Error creating runs directory: " + e.getMessage());
+        }
+
+        boolean completed = false;
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(journal, append))) {
+            for (Employee employee : employees) {
+                if (finished.contains(employee.getEmployeeId())) {
+                    continue;
+                }
+                PayrollReport report = null;
+                try {
+                    report = calculator.computeReport(employee, month, weekNumber, records);
+                    writer.write(doneLine(employee, report));
+                    done++;
+                } catch (RuntimeException e) {
+                    writer.write(FAILED + "," + employee.getEmployeeId() + "," + sanitize(e.toString()));
+                    System.err.println("Payroll failed for employee " + employee.getEmployeeId() + ": " + e.getMessage());
+                    failed++;
+                }
+                writer.newLine();
+                writer.flush(); // Checkpoint: the employee is durable before moving on
+
+                if (report != null && onReport != null) {
+                    onReport.accept(report);
+                }
+                if (onProgress != null) {
+                    onProgress.accept(new RunProgress(runId, done, failed, total, resumed, System.currentTimeMillis() - start));
+                }
+            }
+            if (failed == 0) {
+                writer.write(COMPLETE);
+                writer.newLine();
+                completed = true;
+            }
+        } catch (IOException e) {
+            System.err.println("Error writing run journal " + journal + ": " + e.getMessage());
+        }
+        if (completed && weekNumber == 0) {
+            postToLedger(month, journal);
+        }
+        return new RunProgress(runId, done, failed, total, resumed, System.currentTimeMillis() - start);
+    }
+
+    private String doneLine(Employee employee, PayrollReport report) {
+        long gross = 0, sss = 0, philHealth = 0, pagIbig = 0, tax = 0, net = 0, taxable = 0;
+        for (WeeklyPayroll week : report.getWeeks()) {
+            gross += week.getGrossPay();
+            sss += week.getSss();
+            philHealth += week.getPhilHealth();
+            pagIbig += week.getPagIbig();
+            tax += week.getWithholdingTax();
+            net += week.getNetPay();
+            taxable += week.getTaxableIncome();
+        }
+        return DONE + "," + employee.getEmployeeId() + "," + gross + "," + sss + "," + philHealth + ","
+                + pagIbig + "," + tax + "," + net + "," + taxable;
+    }
+
+    // Replaces the month in the year-to-date ledger with the DONE totals of a completed run
+    private void postToLedger(YearMonth month, File journal) {
+        Map<String, YearToDateLedger.Totals> totals = new HashMap<>();
+        try (BufferedReader reader = new BufferedReader(new FileReader(journal))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.startsWith(DONE + ",")) {
+                    continue;
+                }
+                String[] parts = line.split(",");
+                if (parts.length < 9) {
+                    System.err.println("Skipping malformed journal line: " + line);
+                    continue;
+                }
+                try {
+                    totals.put(parts[1], new YearToDateLedger.Totals(Long.parseLong(parts[2]), Long.parseLong(parts[3]),
+                            Long.parseLong(parts[4]), Long.parseLong(parts[5]), Long.parseLong(parts[8]), Long.parseLong(parts[6])));
+                } catch (NumberFormatException e) {
+                    System.err.println("Skipping malformed journal line: " + line);
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Error reading run journal " + journal + ": " + e.getMessage());
+            return;
+        }
+        try {
+            calculator.getLedger().replaceMonth(month, totals);
+        } catch (IOException e) {
+            System.err.println("Error saving year-to-date ledger: " + e.getMessage());
+        }
+    }
+
+    // Collects the employees already done into finished and returns whether the run completed
+    private boolean readJournal(File journal, Set<String> finished) {
+        boolean complete = false;
+        try (BufferedReader reader = new BufferedReader(new FileReader(journal))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.equals(COMPLETE)) {
+                    complete = true;
+                } else if (line.startsWith(DONE + ",")) {
+                    String[] parts = line.split(",");
+                    if (parts.length >= 2) {
+                        finished.add(parts[1]);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Error reading run journal " + journal + ": " + e.getMessage());
+        }
+        return complete;
+    }
+
+    private String sanitize(String message) {
+        return message.replace(',', ';').replace('\n', ' ').replace('\r', ' ');
+    }
+}
@@ -0,0 +1,67 @@
+package motorph;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Runs what-if payroll simulations: recomputes the whole company's payroll
+ * in memory with a set of overrides and compares it with the baseline.
+ * Nothing is written to the data files and the payroll result cache is not touched.
+ *
+ * Both sides withhold tax against the year-to-date ledger, read fresh for each
+ * simulation, so the baseline matches what a payroll run pays and the
+ * differences come from the overrides alone.
+ */
+public class PayrollSimulator {
+    private final FileHandler fileHandler;
+
+    public PayrollSimulator(FileHandler fileHandler) {
+        this.fileHandler = fileHandler;
+    }
+
+    /**
+     * Simulates the given months for every employee, one employee per task in parallel.
+     */
+    public SimulationReport simulate(List<YearMonth> months, SimulationOverrides overrides) {
+        List<Employee> employees = fileHandler.readEmployees();
+        Map<String, List<Attendance>> recordsByEmployee = fileHandler.getAllAttendanceRecords(FileHandler.employeeIds(employees)).stream()
+                .filter(r -> months.contains(YearMonth.from(r.getDate())))
+                .collect(Collectors.groupingBy(Attendance::getEmployeeId));
+
+        YearToDateLedger ledger = new YearToDateLedger(fileHandler); // Only read by the calculators
+        PayrollCalculator baselineCalculator = new PayrollCalculator(ledger,
+                PayrollCalculator.REGULAR_DAY_OT_MULTIPLIER, PayrollCalculator.REST_DAY_OT_MULTIPLIER);
+        PayrollCalculator simulatedCalculator = new PayrollCalculator(ledger,
+                overrides.getRegularDayOtMultiplier(), overrides.getRestDayOtMultiplier());
+
+        List<SimulationReport.Line> lines = employees.parallelStream()
+                .map(employee -> {
+                    List<Attendance> records = recordsByEmployee.getOrDefault(employee.getEmployeeId(), Collections.emptyList());
+                    long[] baseline = totals(baselineCalculator, employee, months, records);
+                    long[] simulated = totals(simulatedCalculator, overrides.apply(employee), months, records);
+                    return new SimulationReport.Line(employee, baseline[0], simulated[0], baseline[1], simulated[1]);
+                })
+                .collect(Collectors.toList());
+        return new SimulationReport(new ArrayList<>(months), lines);
+    }
+
+    // Returns {gross, net} in centavos for one employee over all months
+    private long[] totals(PayrollCalculator calculator, Employee employee, List<YearMonth> months, List<Attendance> records) {
+        long gross = 0;
+        long net = 0;
+        List<Employee> single = Collections.singletonList(employee);
+        for (YearMonth month : months) {
+            for (List<WeeklyPayroll> weeks : calculator.computeMonthForAllEmployees(month, single, records).values()) {
+                for (WeeklyPayroll week : weeks) {
+                    gross += week.getGrossPay();
+                    net += week.getNetPay();
+                }
+            }
+        }
+        return new long[]{gross, net};
+    }
+}
@@ -0,0 +1,287 @@
+package motorph;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+/**
+ * Generates one payslip file per employee per pay week of a month.
+ *
+ * Work flows through a three-stage pipeline: compute -> render -> write.
+ * Stages run on their own threads and hand work over through small bounded
+ * queues, so memory stays constant regardless of headcount and rendering
+ * overlaps with disk writes. Templates are compiled once per generator.
+ * If the compute or render stage fails, the other stages are stopped and
+ * generate throws with the failure as its cause.
+ *
+ * Output goes to data/payslips/yyyy-MM/<employeeId>_w<week>.html (or .txt).
+ */
+public class PayslipGenerator {
+
+    public enum Format { HTML, TEXT }
+
+    private static final int QUEUE_CAPACITY = 64;
+    private static final String PAYSLIPS_FOLDER = "payslips";
+
+    private static final List<String> FIELDS = Arrays.asList(
+            "employeeId", "name", "position", "month", "week", "startDate", "endDate",
+            "regularHours", "overtimeHours", "lateMinutes",
+            "regularPay", "overtimePay", "holidayPay", "nightDifferential", "allowances", "grossPay",
+            "sss", "philHealth", "pagIbig", "tax", "lateDeduction", "undertimeDeduction", "totalDeductions", "netPay");
+
+    private static final String HTML_TEMPLATE =
+            "<!DOCTYPE html>\n<html><head><meta charset=\"UTF-8\"><title>Payslip {{employeeId}} {{month}} Week {{week}}</title></head>\n"
+            + "<body>\n<h2>MotorPH Payslip</h2>\n"
+            + "<p>{{name}} ({{employeeId}})<br>{{position}}<br>{{month}}, Week {{week}} ({{startDate}} to {{endDate}})</p>\n"
+            + "<table border=\"1\" cellpadding=\"4\">\n"
+            + "<tr><td>Worked Hours</td><td align=\"right\">{{regularHours}}</td></tr>\n"
+            + "<tr><td>Overtime Hours</td><td align=\"right\">{{overtimeHours}}</td></tr>\n"
+            + "<tr><td>Late (minutes)</td><td align=\"right\">{{lateMinutes}}</td></tr>\n"
+            + "<tr><th colspan=\"2\">Earnings</th></tr>\n"
+            + "<tr><td>Regular Pay</td><td align=\"right\">{{regularPay}}</td></tr>\n"
+            + "<tr><td>Overtime Pay</td><td align=\"right\">{{overtimePay}}</td></tr>\n"
+            + "<tr><td>Holiday Premium</td><td align=\"right\">{{holidayPay}}</td></tr>\n"
+            + "<tr><td>Night Differential</td><td align=\"right\">{{nightDifferential}}</td></tr>\n"
+            + "<tr><td>Allowances</td><td align=\"right\">{{allowances}}</td></tr>\n"
+            + "<tr><td><b>Gross Pay</b></td><td align=\"right\"><b>{{grossPay}}</b></td></tr>\n"
+            + "<tr><th colspan=\"2\">Deductions</th></tr>\n"
+            + "<tr><td>SSS</td><td align=\"right\">{{sss}}</td></tr>\n"
+            + "<tr><td>PhilHealth</td><td align=\"right\">{{philHealth}}</td></tr>\n"
+            + "<tr><td>Pag-IBIG</td><td align=\"right\">{{pagIbig}}</td></tr>\n"
+            + "<tr><td>Withholding Tax</td><td align=\"right\">{{tax}}</td></tr>\n"
+            + "<tr><td>Late Deduction</td><td align=\"right\">{{lateDeduction}}</td></tr>\n"
+            + "<tr><td>Undertime Deduction</td><td align=\"right\">{{undertimeDeduction}}</td></tr>\n"
+            + "<tr><td><b>Total Deductions</b></td><td align=\"right\"><b>{{totalDeductions}}</b></td></tr>\n"
+            + "<tr><td><b>Net Pay</b></td><td align=\"right\"><b>{{netPay}}</b></td></tr>\n"
+            + "</table>\n</body></html>\n";
+
+    private static final String TEXT_TEMPLATE =
+            "-------------------------------\n"
+            + "        MOTORPH PAYSLIP\n"
+            + "-------------------------------\n"
+            + "Employee: {{name}} ({{employeeId}})\n"
+            + "Position: {{position}}\n"
+            + "Period:   {{month}}, Week {{week}} ({{startDate}} to {{endDate}})\n"
+            + "-------------------------------\n"
+            + "Worked Hours:     {{regularHours}}\n"
+            + "Overtime Hours:   {{overtimeHours}}\n"
+            + "Late (minutes):   {{lateMinutes}}\n"
+            + "-------------------------------\n"
+            + "Regular Pay:      PHP {{regularPay}}\n"
+            + "Overtime Pay:     PHP {{overtimePay}}\n"
+            + "Holiday Premium:  PHP {{holidayPay}}\n"
+            + "Night Diff.:      PHP {{nightDifferential}}\n"
+            + "Allowances:       PHP {{allowances}}\n"
+            + "Gross Pay:        PHP {{grossPay}}\n"
+            + "-------------------------------\n"
+            + "SSS:              PHP {{sss}}\n"
+            + "PhilHealth:       PHP {{philHealth}}\n"
+            + "Pag-IBIG:         PHP {{pagIbig}}\n"
+            + "Withholding Tax:  PHP {{tax}}\n"
+            + "Late Deduction:   PHP {{lateDeduction}}\n"
+            + "Undertime:        PHP {{undertimeDeduction}}\n"
+            + "Total Deductions: PHP {{totalDeductions}}\n"
+            + "-------------------------------\n"
+            + "Net Pay:          PHP {{netPay}}\n";
+
+    // Marks the end of the stream between stages
+    private static final Payslip END = new Payslip(null, null);
+
+    private final FileHandler fileHandler;
+    private final PayrollCalculator calculator;
+    private final Format format;
+    private final PayslipTemplate template;
+
+    public PayslipGenerator(FileHandler fileHandler, PayrollCalculator calculator, Format format) {
+        this.fileHandler = fileHandler;
+        this.calculator = calculator;
+        this.format = format;
+        this.template = PayslipTemplate.compile(format == Format.HTML ? HTML_TEMPLATE : TEXT_TEMPLATE, FIELDS);
+    }
+
+    /**
+     * Generates payslips for every employee with attendance in the month.
+     * Returns the number of payslip files written. Throws if the output folder
+     * cannot be created or a stage fails; payslips already written are kept.
+     */
+    public int generate(YearMonth month) throws IOException {
+        File outputFolder = new File(fileHandler.getDataFolderPath() + File.separator + PAYSLIPS_FOLDER
+                + File.separator + month);
+        Files.createDirectories(outputFolder.toPath());
+
+        BlockingQueue<Payslip> computed = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+        BlockingQueue<Payslip> rendered = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+        AtomicReference<RuntimeException> failure = new AtomicReference<>();
+
+        Thread computeStage = new Thread(() -> compute(month, computed, failure), "payslip-compute");
+        Thread renderStage = new Thread(() -> render(month, computed, rendered, computeStage, failure), "payslip-render");
+        computeStage.start();
+        renderStage.start();
+
+        int written = write(outputFolder, rendered);
+        try {
+            computeStage.join();
+            renderStage.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (failure.get() != null) {
+            throw new IOException("Payslip generation stopped after " + written + " payslip(s): " + failure.get().getMessage(), failure.get());
+        }
+        return written;
+    }
+
+    // Stage 1: computes each employee's weeks and queues one payslip per week
+    private void compute(YearMonth month, BlockingQueue<Payslip> out, AtomicReference<RuntimeException> failure) {
+        try {
+            List<Employee> employees = fileHandler.readEmployees();
+            Map<String, List<Attendance>> recordsByEmployee = fileHandler.getAllAttendanceRecords(FileHandler.employeeIds(employees)).stream()
+                    .filter(r -> YearMonth.from(r.getDate()).equals(month))
+                    .collect(Collectors.groupingBy(Attendance::getEmployeeId));
+
+            for (Employee employee : employees) {
+                List<Attendance> records = recordsByEmployee.get(employee.getEmployeeId());
+                if (records == null) {
+                    continue;
+                }
+                Map<String, List<WeeklyPayroll>> weeks = calculator.computeMonthForAllEmployees(
+                        month, Collections.singletonList(employee), records);
+                for (WeeklyPayroll week : weeks.getOrDefault(employee.getEmployeeId(), Collections.emptyList())) {
+                    out.put(new Payslip(employee, week));
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            System.err.println("Error computing payslips: " + e.getMessage());
+            e.printStackTrace();
+            failure.compareAndSet(null, e);
+        } finally {
+            putEnd(out);
+        }
+    }
+
+    // Stage 2: renders payslips with the compiled template. On failure it stops the compute stage
+    private void render(YearMonth month, BlockingQueue<Payslip> in, BlockingQueue<Payslip> out,
+                        Thread computeStage, AtomicReference<RuntimeException> failure) {
+        String monthText = month.format(DateTimeFormatter.ofPattern("MMMM yyyy"));
+        String[] values = new String[FIELDS.size()];
+        StringBuilder sb = new StringBuilder(4096);
+        try {
+            Payslip payslip;
+            while ((payslip = in.take()) != END) {
+                fillValues(values, payslip, monthText);
+                sb.setLength(0);
+                template.render(values, sb);
+                payslip.content = sb.toString();
+                out.put(payslip);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            System.err.println("Error rendering payslips: " + e.getMessage());
+            e.printStackTrace();
+            failure.compareAndSet(null, e);
+            computeStage.interrupt();
+            in.clear(); // Frees a compute stage blocked on a full queue
+        } finally {
+            putEnd(out);
+        }
+    }
+
+    // Stage 3: writes rendered payslips to disk on the calling thread
+    private int write(File outputFolder, BlockingQueue<Payslip> in) {
+        String extension = format == Format.HTML ? ".html" : ".txt";
+        int written = 0;
+        try {
+            Payslip payslip;
+            while ((payslip = in.take()) != END) {
+                String fileName = payslip.employee.getEmployeeId() + "_w" + payslip.week.getWeekNumber() + extension;
+                try (BufferedWriter writer = new BufferedWriter(new FileWriter(new File(outputFolder, fileName)))) {
+                    writer.write(payslip.content);
+                    written++;
+                } catch (IOException e) {
+                    System.err.println("Error writing payslip " + fileName + ": " + e.getMessage());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return written;
+    }
+
+    private void fillValues(String[] values, Payslip payslip, String monthText) {
+        Employee e = payslip.employee;
+        WeeklyPayroll w = payslip.week;
+        int i = 0;
+        values[i++] = escape(e.getEmployeeId());
+        values[i++] = escape(e.getLastName() + ", " + e.getFirstName());
+        values[i++] = escape(e.getPosition());
+        values[i++] = monthText;
+        values[i++] = String.valueOf(w.getWeekNumber());
+        values[i++] = w.getStartDate().toString();
+        values[i++] = w.getEndDate().toString();
+        values[i++] = MoneyFormat.appendHours(new StringBuilder(8), w.getRegularMinutes()).toString();
+        values[i++] = MoneyFormat.appendHours(new StringBuilder(8), w.getOvertimeMinutes()).toString();
+        values[i++] = String.valueOf(w.getLateMinutes());
+        values[i++] = money(w.getRegularPay());
+        values[i++] = money(w.getOvertimePay());
+        values[i++] = money(w.getHolidayPay());
+        values[i++] = money(w.getNightDifferentialPay());
+        values[i++] = money(w.getAllowances());
+        values[i++] = money(w.getGrossPay());
+        values[i++] = money(w.getSss());
+        values[i++] = money(w.getPhilHealth());
+        values[i++] = money(w.getPagIbig());
+        values[i++] = money(w.getWithholdingTax());
+        values[i++] = money(w.getLateDeduction());
+        values[i++] = money(w.getUndertimeDeduction());
+        values[i++] = money(w.getTotalDeductions());
+        values[i] = money(w.getNetPay());
+    }
+
+    private String money(long centavos) {
+        return MoneyFormat.format(centavos);
+    }
+
+    private String escape(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (format != Format.HTML) {
+            return value;
+        }
+        return value.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("\"", "&quot;");
+    }
+
+    private void putEnd(BlockingQueue<Payslip> queue) {
+        try {
+            queue.put(END);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static final class Payslip {
+        final Employee employee;
+        final WeeklyPayroll week;
+        String content;
+
+        Payslip(Employee employee, WeeklyPayroll week) {
+            this.employee = employee;
+            this.week = week;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package motorph;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A payslip template compiled once into alternating literal text and field slots.
+ * Placeholders are written as {{fieldName}} and must name one of the fields
+ * passed to {@link #compile}; rendering is then a straight walk over the parts
+ * with no parsing or lookups.
+ */
+public final class PayslipTemplate {
+    private final String[] literals; // literals[i] precedes slot i; the last literal ends the template
+    private final int[] slots;       // field index for each slot
+
+    private PayslipTemplate(String[] literals, int[] slots) {
+        this.literals = literals;
+        this.slots = slots;
+    }
+
+    /**
+     * Compiles template text against an ordered list of field names.
+     * Unknown placeholders are rejected with an IllegalArgumentException.
+     */
+    public static PayslipTemplate compile(String text, List<String> fieldNames) {
+        List<String> literals = new ArrayList<>();
+        List<Integer> slots = new ArrayList<>();
+        int pos = 0;
+        while (true) {
+            int open = text.indexOf("{{", pos);
+            if (open < 0) {
+                break;
+            }
+            int close = text.indexOf("}}", open + 2);
+            if (close < 0) {
+                throw new IllegalArgumentException("Unclosed placeholder at position " + open);
+            }
+            String name = text.substring(open + 2, close).trim();
+            int field = fieldNames.indexOf(name);
+            if (field < 0) {
+                throw new IllegalArgumentException("Unknown payslip field: " + name);
+            }
+            literals.add(text.substring(pos, open));
+            slots.add(field);
+            pos = close + 2;
+        }
+        literals.add(text.substring(pos));
+
+        int[] slotArray = new int[slots.size()];
+        for (int i = 0; i < slotArray.length; i++) {
+            slotArray[i] = slots.get(i);
+        }
+        return new PayslipTemplate(literals.toArray(new String[0]), slotArray);
+    }
+
+    /**
+     * Renders the template with values given in field order.
+     */
+    public void render(String[] values, StringBuilder out) {
+        for (int i = 0; i < slots.length; i++) {
+            out.append(literals[i]).append(values[slots[i]]);
+        }
+        out.append(literals[slots.length]);
+    }
+}
@@ -0,0 +1,123 @@
+package motorph;
+
+/**
+ * Sums worked, regular, overtime, late, undertime and night minutes over a
+ * block of punches held in AttendanceColumns, under one compiled attendance rule.
+ *
+ * The block loop is branch-free (min/max and sign masks instead of ifs) over
+ * plain int arrays. Whether HotSpot's C2 compiler vectorizes it has not been
+ * measured. PayrollCalculator.computeWeek is the per-punch path built on
+ * PayrollKernel; run with assertions enabled (-ea) and
+ * PayrollCalculator.computeMonthForAllEmployees checks every block it sums
+ * here against that path.
+ */
+public final class PunchAggregator {
+
+    private PunchAggregator() {}
+
+    /**
+     * Minute totals for a block of punches.
+     */
+    public static final class Totals {
+        public int workedMinutes;
+        public int regularMinutes;
+        public int regularDayOvertimeMinutes;
+        public int restDayOvertimeMinutes;
+        public int lateMinutes;
+        public int regularHolidayMinutes;  // all minutes worked on regular holidays
+        public int specialHolidayMinutes;  // all minutes worked on special holidays
+        public int undertimeMinutes;
+        public int nightMinutes;
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Totals)) {
+                return false;
+            }
+            Totals t = (Totals) o;
+            return workedMinutes == t.workedMinutes && regularMinutes == t.regularMinutes
+                    && regularDayOvertimeMinutes == t.regularDayOvertimeMinutes
+                    && restDayOvertimeMinutes == t.restDayOvertimeMinutes && lateMinutes == t.lateMinutes
+                    && regularHolidayMinutes == t.regularHolidayMinutes
+                    && specialHolidayMinutes == t.specialHolidayMinutes
+                    && undertimeMinutes == t.undertimeMinutes && nightMinutes == t.nightMinutes;
+        }
+
+        @Override
+        public int hashCode() {
+            return java.util.Objects.hash(workedMinutes, regularMinutes, regularDayOvertimeMinutes,
+                    restDayOvertimeMinutes, lateMinutes, regularHolidayMinutes, specialHolidayMinutes,
+                    undertimeMinutes, nightMinutes);
+        }
+
+        @Override
+        public String toString() {
+            return "worked=" + workedMinutes + " regular=" + regularMinutes
+                    + " ot=" + regularDayOvertimeMinutes + " restOt=" + restDayOvertimeMinutes
+                    + " late=" + lateMinutes + " regularHoliday=" + regularHolidayMinutes
+                    + " specialHoliday=" + specialHolidayMinutes + " undertime=" + undertimeMinutes
+                    + " night=" + nightMinutes;
+        }
+    }
+
+    /**
+     * Aggregates rows [from, to) of the columns in one branch-free pass.
+     */
+    public static Totals aggregate(AttendanceColumns columns, int from, int to, AttendanceRules rules, int rule) {
+        int[] in = columns.timeIn;
+        int[] out = columns.timeOut;
+        int[] rest = columns.restDay;
+        int[] regularHoliday = columns.regularHoliday;
+        int[] specialHoliday = columns.specialHoliday;
+
+        // Everything the loop needs from the rule, read once
+        int regularMinutesPerDay = rules.regularMinutes[rule];
+        int shiftStartMinute = rules.shiftStart[rule];
+        int shiftEndMinute = rules.shiftEnd[rule];
+        int lateThreshold = shiftStartMinute + rules.graceMinutes[rule];
+        // The night window as up to two non-wrapping intervals; the second is empty unless it crosses midnight
+        int nightStart = rules.nightStart[rule];
+        int nightEnd = rules.nightEnd[rule];
+        boolean wraps = nightStart > nightEnd;
+        int nightEnd1 = wraps ? PayrollKernel.MINUTES_PER_DAY : nightEnd;
+        int nightEnd2 = wraps ? nightEnd : 0;
+
+        int worked = 0;
+        int regular = 0;
+        int overtime = 0;
+        int restOvertime = 0;
+        int late = 0;
+        int regularHolidayWorked = 0;
+        int specialHolidayWorked = 0;
+        int undertime = 0;
+        int night = 0;
+        for (int i = from; i < to; i++) {
+            int w = out[i] - in[i];
+            int ot = Math.max(0, w - regularMinutesPerDay);
+            worked += w;
+            regular += Math.min(w, regularMinutesPerDay);
+            overtime += ot;
+            restOvertime += ot * rest[i];
+            regularHolidayWorked += w * regularHoliday[i];
+            specialHolidayWorked += w * specialHoliday[i];
+            // All ones when the punch is past the grace period, zero otherwise
+            int lateMask = (lateThreshold - in[i]) >> 31;
+            late += (in[i] - shiftStartMinute) & lateMask;
+            undertime += Math.max(0, shiftEndMinute - out[i]);
+            night += Math.max(0, Math.min(out[i], nightEnd1) - Math.max(in[i], nightStart))
+                    + Math.max(0, Math.min(out[i], nightEnd2) - in[i]);
+        }
+
+        Totals totals = new Totals();
+        totals.workedMinutes = worked;
+        totals.regularMinutes = regular;
+        totals.regularDayOvertimeMinutes = overtime - restOvertime;
+        totals.restDayOvertimeMinutes = restOvertime;
+        totals.lateMinutes = late;
+        totals.regularHolidayMinutes = regularHolidayWorked;
+        totals.specialHolidayMinutes = specialHolidayWorked;
+        totals.undertimeMinutes = undertime;
+        totals.nightMinutes = night;
+        return totals;
+    }
+}
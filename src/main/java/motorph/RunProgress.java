@@ -0,0 +1,56 @@
+package motorph;
+
+/**
+ * Snapshot of a company-wide payroll run's progress.
+ */
+public class RunProgress {
+    private final String runId;
+    private final int done;
+    private final int failed;
+    private final int total;
+    private final int resumed;
+    private final long elapsedMillis;
+
+    public RunProgress(String runId, int done, int failed, int total, int resumed, long elapsedMillis) {
+        this.runId = runId;
+        this.done = done;
+        this.failed = failed;
+        this.total = total;
+        this.resumed = resumed;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public String getRunId() { return runId; }
+
+    /**
+     * Employees finished so far, including those recovered from the journal.
+     */
+    public int getDone() { return done; }
+    public int getFailed() { return failed; }
+    public int getTotal() { return total; }
+
+    /**
+     * Employees that were already finished in the journal when the run was resumed.
+     */
+    public int getResumed() { return resumed; }
+    public long getElapsedMillis() { return elapsedMillis; }
+
+    public boolean isComplete() {
+        return done + failed >= total;
+    }
+
+    /**
+     * Employees computed per second in this session (resumed employees don't count).
+     */
+    public double getThroughput() {
+        if (elapsedMillis <= 0) {
+            return 0;
+        }
+        return (done + failed - resumed) * 1000.0 / elapsedMillis;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d/%d done, %d failed, %.1f employees/s", done, total, failed, getThroughput());
+    }
+}
@@ -0,0 +1,62 @@
+package motorph;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The changes a what-if payroll simulation applies on top of the current data.
+ * Anything not set keeps its normal value.
+ */
+public class SimulationOverrides {
+    private int regularDayOtMultiplier = PayrollCalculator.REGULAR_DAY_OT_MULTIPLIER;
+    private int restDayOtMultiplier = PayrollCalculator.REST_DAY_OT_MULTIPLIER;
+    private double raisePercentForAll = 0;
+    // Position (case-insensitive) -> raise in percent, e.g. 5.0 for a 5% raise
+    private final Map<String, Double> raisePercentByPosition = new HashMap<>();
+
+    public int getRegularDayOtMultiplier() { return regularDayOtMultiplier; }
+    public int getRestDayOtMultiplier() { return restDayOtMultiplier; }
+
+    /**
+     * Sets the weekday overtime multiplier in percent (125 = 1.25x).
+     */
+    public void setRegularDayOtMultiplier(int percent) { this.regularDayOtMultiplier = percent; }
+
+    /**
+     * Sets the rest day overtime multiplier in percent (130 = 1.30x).
+     */
+    public void setRestDayOtMultiplier(int percent) { this.restDayOtMultiplier = percent; }
+
+    /**
+     * Gives every employee a raise, in percent.
+     */
+    public void setRaisePercentForAll(double percent) { this.raisePercentForAll = percent; }
+
+    /**
+     * Gives employees holding a position a raise, in percent. Applied on top of any company-wide raise.
+     */
+    public void setRaisePercentForPosition(String position, double percent) {
+        raisePercentByPosition.put(position.trim().toLowerCase(), percent);
+    }
+
+    /**
+     * Returns a copy of the employee with the configured raises applied,
+     * or the employee itself when no raise applies.
+     */
+    Employee apply(Employee employee) {
+        double percent = raisePercentForAll;
+        if (employee.getPosition() != null) {
+            percent += raisePercentByPosition.getOrDefault(employee.getPosition().trim().toLowerCase(), 0.0);
+        }
+        if (percent == 0) {
+            return employee;
+        }
+        double factor = 1 + percent / 100.0;
+        Employee adjusted = new Employee(employee);
+        adjusted.setBasicSalary(employee.getBasicSalary() * factor);
+        // setBasicSalary derives the hourly rate, but the data file carries its own rate
+        adjusted.setHourlyRate(employee.getHourlyRate() * factor);
+        adjusted.setGrossRate(employee.getGrossRate() * factor);
+        return adjusted;
+    }
+}
@@ -0,0 +1,87 @@
+package motorph;
+
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Baseline versus simulated payroll totals for every employee over the simulated months.
+ * All amounts are in centavos.
+ */
+public class SimulationReport {
+
+    /**
+     * One employee's baseline and simulated totals.
+     */
+    public static class Line {
+        private final Employee employee;
+        private final long baselineGross;
+        private final long simulatedGross;
+        private final long baselineNet;
+        private final long simulatedNet;
+
+        Line(Employee employee, long baselineGross, long simulatedGross, long baselineNet, long simulatedNet) {
+            this.employee = employee;
+            this.baselineGross = baselineGross;
+            this.simulatedGross = simulatedGross;
+            this.baselineNet = baselineNet;
+            this.simulatedNet = simulatedNet;
+        }
+
+        public Employee getEmployee() { return employee; }
+        public long getBaselineGross() { return baselineGross; }
+        public long getSimulatedGross() { return simulatedGross; }
+        public long getBaselineNet() { return baselineNet; }
+        public long getSimulatedNet() { return simulatedNet; }
+        public long getGrossDelta() { return simulatedGross - baselineGross; }
+        public long getNetDelta() { return simulatedNet - baselineNet; }
+    }
+
+    private final List<YearMonth> months;
+    private final List<Line> lines;
+
+    SimulationReport(List<YearMonth> months, List<Line> lines) {
+        this.months = Collections.unmodifiableList(months);
+        this.lines = Collections.unmodifiableList(lines);
+    }
+
+    public List<YearMonth> getMonths() { return months; }
+    public List<Line> getLines() { return lines; }
+
+    public long getBaselineGross() { return lines.stream().mapToLong(Line::getBaselineGross).sum(); }
+    public long getSimulatedGross() { return lines.stream().mapToLong(Line::getSimulatedGross).sum(); }
+    public long getGrossDelta() { return getSimulatedGross() - getBaselineGross(); }
+    public long getNetDelta() { return lines.stream().mapToLong(Line::getNetDelta).sum(); }
+
+    /**
+     * Formats the report as a console table, listing only employees whose pay changed.
+     */
+    public String format() {
+        DateTimeFormatter monthFormat = DateTimeFormatter.ofPattern("MMMM yyyy");
+        StringBuilder sb = new StringBuilder();
+        sb.append("Months: ");
+        for (int i = 0; i < months.size(); i++) {
+            sb.append(i > 0 ? ", " : "").append(months.get(i).format(monthFormat));
+        }
+        sb.append("\n\n");
+        sb.append(String.format("%-8s %-30s %15s %15s %15s\n", "ID", "Name", "Baseline Gross", "Simulated Gross", "Delta"));
+        for (Line line : lines) {
+            if (line.getGrossDelta() == 0) {
+                continue;
+            }
+            Employee e = line.getEmployee();
+            sb.append(String.format("%-8s %-30s %,15.2f %,15.2f %,15.2f\n",
+                    e.getEmployeeId(), e.getLastName() + ", " + e.getFirstName(),
+                    PayrollKernel.toPesos(line.getBaselineGross()),
+                    PayrollKernel.toPesos(line.getSimulatedGross()),
+                    PayrollKernel.toPesos(line.getGrossDelta())));
+        }
+        sb.append("\n");
+        sb.append(String.format("Total Baseline Gross:  PHP %,.2f\n", PayrollKernel.toPesos(getBaselineGross())));
+        sb.append(String.format("Total Simulated Gross: PHP %,.2f\n", PayrollKernel.toPesos(getSimulatedGross())));
+        sb.append(String.format("Gross Cost Delta:      PHP %,.2f\n", PayrollKernel.toPesos(getGrossDelta())));
+        sb.append(String.format("Net Pay Delta:         PHP %,.2f\n", PayrollKernel.toPesos(getNetDelta())));
+        return sb.toString();
+    }
+}
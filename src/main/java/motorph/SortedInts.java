@@ -0,0 +1,37 @@
+package motorph;
+
+import java.util.Arrays;
+
+/**
+ * Operations on ascending int arrays, such as the row and position lists
+ * kept by AttendanceIndex, EmployeeTrie and EmployeeSearchIndex.
+ */
+public final class SortedInts {
+
+    private SortedInts() {}
+
+    /**
+     * Intersection of two ascending arrays without duplicates.
+     */
+    public static int[] intersect(int[] a, int[] b) {
+        if (a.length > b.length) {
+            int[] t = a;
+            a = b;
+            b = t;
+        }
+        int[] result = new int[a.length];
+        int count = 0;
+        int j = 0;
+        for (int i = 0; i < a.length && j < b.length; i++) {
+            // Skip ahead in the longer array with a binary search instead of a linear walk
+            int found = Arrays.binarySearch(b, j, b.length, a[i]);
+            if (found >= 0) {
+                result[count++] = a[i];
+                j = found + 1;
+            } else {
+                j = -found - 1;
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+}
@@ -0,0 +1,126 @@
+package motorph;
+
+import java.time.LocalDate;
+
+/**
+ * Holds the computed payroll figures for one employee and one week.
+ * Time is kept in minutes and money in centavos (see PayrollKernel).
+ * Instances are immutable so they can be shared through the payroll result cache.
+ */
+public class WeeklyPayroll {
+    private final int weekNumber;
+    private final LocalDate startDate;
+    private final LocalDate endDate;
+
+    // Time worked
+    private final int regularMinutes;
+    private final int regularDayOvertimeMinutes;
+    private final int restDayOvertimeMinutes;
+    private final int lateMinutes;
+    private final int regularHolidayMinutes;
+    private final int specialHolidayMinutes;
+    private final int undertimeMinutes;
+    private final int nightMinutes;
+
+    // Earnings
+    private final long regularPay;
+    private final long overtimePay;
+    private final long holidayPay; // premium on top of regular and overtime pay
+    private final long nightDifferentialPay;
+    private final long allowances;
+
+    // Deductions
+    private final long lateDeduction;
+    private final long undertimeDeduction;
+    private final long sss;
+    private final long philHealth;
+    private final long pagIbig;
+    private final long withholdingTax;
+
+    public WeeklyPayroll(int weekNumber, LocalDate startDate, LocalDate endDate,
+                         int regularMinutes, int regularDayOvertimeMinutes, int restDayOvertimeMinutes,
+                         int lateMinutes, int regularHolidayMinutes, int specialHolidayMinutes,
+                         int undertimeMinutes, int nightMinutes,
+                         long regularPay, long overtimePay, long holidayPay, long nightDifferentialPay,
+                         long allowances, long lateDeduction, long undertimeDeduction, long sss, long philHealth, long pagIbig, long withholdingTax) {
+        this.weekNumber = weekNumber;
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.regularMinutes = regularMinutes;
+        this.regularDayOvertimeMinutes = regularDayOvertimeMinutes;
+        this.restDayOvertimeMinutes = restDayOvertimeMinutes;
+        this.lateMinutes = lateMinutes;
+        this.regularHolidayMinutes = regularHolidayMinutes;
+        this.specialHolidayMinutes = specialHolidayMinutes;
+        this.undertimeMinutes = undertimeMinutes;
+        this.nightMinutes = nightMinutes;
+        this.regularPay = regularPay;
+        this.overtimePay = overtimePay;
+        this.holidayPay = holidayPay;
+        this.nightDifferentialPay = nightDifferentialPay;
+        this.allowances = allowances;
+        this.lateDeduction = lateDeduction;
+        this.undertimeDeduction = undertimeDeduction;
+        this.sss = sss;
+        this.philHealth = philHealth;
+        this.pagIbig = pagIbig;
+        this.withholdingTax = withholdingTax;
+    }
+
+    public int getWeekNumber() { return weekNumber; }
+    public LocalDate getStartDate() { return startDate; }
+    public LocalDate getEndDate() { return endDate; }
+
+    // Minutes
+    public int getRegularMinutes() { return regularMinutes; }
+    public int getRegularDayOvertimeMinutes() { return regularDayOvertimeMinutes; }
+    public int getRestDayOvertimeMinutes() { return restDayOvertimeMinutes; }
+    public int getOvertimeMinutes() { return regularDayOvertimeMinutes + restDayOvertimeMinutes; }
+    public int getLateMinutes() { return lateMinutes; }
+    public int getRegularHolidayMinutes() { return regularHolidayMinutes; }
+    public int getSpecialHolidayMinutes() { return specialHolidayMinutes; }
+    public int getUndertimeMinutes() { return undertimeMinutes; }
+    public int getNightMinutes() { return nightMinutes; }
+
+    // Centavos
+    public long getRegularPay() { return regularPay; }
+    public long getOvertimePay() { return overtimePay; }
+    public long getHolidayPay() { return holidayPay; }
+    public long getNightDifferentialPay() { return nightDifferentialPay; }
+    public long getAllowances() { return allowances; }
+    public long getLateDeduction() { return lateDeduction; }
+    public long getUndertimeDeduction() { return undertimeDeduction; }
+    public long getSss() { return sss; }
+    public long getPhilHealth() { return philHealth; }
+    public long getPagIbig() { return pagIbig; }
+    public long getWithholdingTax() { return withholdingTax; }
+
+    public long getGovernmentDeductions() {
+        return sss + philHealth + pagIbig + withholdingTax;
+    }
+
+    /**
+     * Taxable compensation: gross pay less the rice, phone and clothing allowances
+     * (non-taxable de minimis benefits), late and undertime deductions and contributions.
+     */
+    public long getTaxableIncome() {
+        return regularPay + overtimePay + holidayPay + nightDifferentialPay
+                - lateDeduction - undertimeDeduction - (sss + philHealth + pagIbig);
+    }
+
+    public long getGrossPay() {
+        return regularPay + overtimePay + holidayPay + nightDifferentialPay + allowances;
+    }
+
+    public long getTotalDeductions() {
+        return getGovernmentDeductions() + lateDeduction + undertimeDeduction;
+    }
+
+    public long getNetPay() {
+        return getGrossPay() - getTotalDeductions();
+    }
+
+    // Hours, for display only
+    public double getRegularHours() { return regularMinutes / (double) PayrollKernel.MINUTES_PER_HOUR; }
+    public double getOvertimeHours() { return getOvertimeMinutes() / (double) PayrollKernel.MINUTES_PER_HOUR; }
+}
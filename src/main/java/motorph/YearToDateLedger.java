@@ -0,0 +1,289 @@
+package motorph;
+
+import com.opencsv.CSVReader;
+import com.opencsv.CSVWriter;
+import com.opencsv.exceptions.CsvValidationException;
+
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Persistent per-employee, per-month totals of gross pay, contributions,
+ * taxable income and tax withheld, for annualized withholding and year-end
+ * reconciliation without rescanning the year's attendance. Amounts are in centavos.
+ *
+ * A finalized full-month run (see PayrollRunManager) replaces that month's
+ * rows, so a corrected re-run takes the place of the first one instead of
+ * being ignored or counted twice.
+ *
+ * Stored in data/ytd.csv, written to a temporary file and then renamed over
+ * the old one so a crash mid-write never leaves a half-written ledger. The
+ * console app and the GUI can both post runs, so a post locks data/ytd.csv.lock
+ * and re-reads the file before replacing its month; one process never writes
+ * back a copy that is missing the other's months.
+ */
+public class YearToDateLedger {
+    private static final String LEDGER_FILE = "ytd.csv";
+    private static final String LOCK_FILE = LEDGER_FILE + ".lock";
+    private static final String HEADER = "Year,Month,Employee #,Gross,SSS,PhilHealth,Pag-IBIG,Taxable,Tax Withheld";
+    private static final int MONTHS = 12;
+    // A file lock is held per JVM, so ledgers in the same process also take turns here
+    private static final Object POST_LOCK = new Object();
+
+    /**
+     * Totals for one employee over a month or a span of months.
+     */
+    public static class Totals {
+        private long gross;
+        private long sss;
+        private long philHealth;
+        private long pagIbig;
+        private long taxable;
+        private long taxWithheld;
+
+        public Totals() {
+        }
+
+        public Totals(long gross, long sss, long philHealth, long pagIbig, long taxable, long taxWithheld) {
+            this.gross = gross;
+            this.sss = sss;
+            this.philHealth = philHealth;
+            this.pagIbig = pagIbig;
+            this.taxable = taxable;
+            this.taxWithheld = taxWithheld;
+        }
+
+        public long getGross() { return gross; }
+        public long getSss() { return sss; }
+        public long getPhilHealth() { return philHealth; }
+        public long getPagIbig() { return pagIbig; }
+        public long getTaxWithheld() { return taxWithheld; }
+
+        public long getContributions() {
+            return sss + philHealth + pagIbig;
+        }
+
+        /**
+         * Taxable compensation: gross pay less the non-taxable allowances,
+         * late and undertime deductions and contributions (see WeeklyPayroll.getTaxableIncome).
+         */
+        public long getTaxable() {
+            return taxable;
+        }
+
+        private void add(Totals other) {
+            gross += other.gross;
+            sss += other.sss;
+            philHealth += other.philHealth;
+            pagIbig += other.pagIbig;
+            taxable += other.taxable;
+            taxWithheld += other.taxWithheld;
+        }
+    }
+
+    private final File ledgerFile;
+    private final File lockFile;
+    // "year,employeeId" -> totals by month (index 0 = January, null if not posted), sorted so the file is stable
+    private Map<String, Totals[]> months = new TreeMap<>();
+    private int version;
+
+    public YearToDateLedger(FileHandler fileHandler) {
+        ledgerFile = new File(fileHandler.getDataFolderPath() + File.separator + LEDGER_FILE);
+        lockFile = new File(fileHandler.getDataFolderPath() + File.separator + LOCK_FILE);
+        try {
+            months = load();
+        } catch (IOException e) {
+            System.err.println("Error reading year-to-date ledger: " + e.getMessage());
+        }
+    }
+
+    /**
+     * The employee's totals for the whole year.
+     */
+    public synchronized Totals get(String employeeId, int year) {
+        return sum(months.get(key(year, employeeId)), MONTHS);
+    }
+
+    /**
+     * Changes whenever a month is replaced; payroll results that used the ledger are keyed on it.
+     */
+    public synchronized int getVersion() {
+        return version;
+    }
+
+    /**
+     * Replaces every employee's totals for a month with those of a finalized run,
+     * then writes the ledger to disk. Months posted meanwhile by another process
+     * are read back in first and kept.
+     */
+    public synchronized void replaceMonth(YearMonth month, Map<String, Totals> totalsByEmployee) throws IOException {
+        synchronized (POST_LOCK) {
+            try (FileChannel channel = FileChannel.open(lockFile.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                 FileLock lock = channel.lock()) {
+                months = load();
+                replace(month, totalsByEmployee);
+                version++;
+                save();
+            }
+        }
+    }
+
+    private void replace(YearMonth month, Map<String, Totals> totalsByEmployee) {
+        int index = month.getMonthValue() - 1;
+        String prefix = month.getYear() + ",";
+        for (Map.Entry<String, Totals[]> entry : months.entrySet()) {
+            if (entry.getKey().startsWith(prefix)) {
+                entry.getValue()[index] = null;
+            }
+        }
+        for (Map.Entry<String, Totals> entry : totalsByEmployee.entrySet()) {
+            months.computeIfAbsent(key(month.getYear(), entry.getKey()), k -> new Totals[MONTHS])[index] = entry.getValue();
+        }
+    }
+
+    /**
+     * Withholding due for a month using the annualized method: the year is
+     * projected from the taxable income already posted for the earlier months
+     * plus this month's taxable income for the months left, taxed on the annual
+     * table, and the tax not yet withheld is spread over the months left.
+     * An earlier month with no posted run is projected like the month itself,
+     * so with an empty ledger this is the plain monthly table.
+     */
+    public synchronized long annualizedTaxDue(String employeeId, YearMonth month, long monthTaxable) {
+        Totals[] posted = months.get(key(month.getYear(), employeeId));
+        long taxable = 0;
+        long withheld = 0;
+        for (int i = 0; i < month.getMonthValue() - 1; i++) {
+            if (posted != null && posted[i] != null) {
+                taxable += posted[i].taxable;
+                withheld += posted[i].taxWithheld;
+            } else {
+                taxable += monthTaxable;
+                withheld += PayrollKernel.withholdingTax(monthTaxable);
+            }
+        }
+        int remaining = MONTHS - month.getMonthValue() + 1;
+        long annualTax = PayrollKernel.annualWithholdingTax(taxable + monthTaxable * remaining);
+        return Math.max(0, PayrollKernel.divideRoundHalfUp(annualTax - withheld, remaining));
+    }
+
+    /**
+     * Tax still owed (positive) or to be refunded (negative) on the year's actual income.
+     */
+    public synchronized long reconcile(String employeeId, int year) {
+        Totals t = get(employeeId, year);
+        return PayrollKernel.annualWithholdingTax(t.getTaxable()) - t.getTaxWithheld();
+    }
+
+    /**
+     * Employee IDs with totals for the year.
+     */
+    public synchronized List<String> getEmployeeIds(int year) {
+        List<String> ids = new ArrayList<>();
+        String prefix = year + ",";
+        for (Map.Entry<String, Totals[]> entry : months.entrySet()) {
+            if (entry.getKey().startsWith(prefix) && isPosted(entry.getValue())) {
+                ids.add(entry.getKey().substring(prefix.length()));
+            }
+        }
+        return ids;
+    }
+
+    private static String key(int year, String employeeId) {
+        return year + "," + employeeId;
+    }
+
+    private static boolean isPosted(Totals[] byMonth) {
+        for (Totals t : byMonth) {
+            if (t != null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Sum of the first count months, or an empty Totals when none is posted
+    private static Totals sum(Totals[] byMonth, int count) {
+        Totals total = new Totals();
+        if (byMonth != null) {
+            for (int i = 0; i < count; i++) {
+                if (byMonth[i] != null) {
+                    total.add(byMonth[i]);
+                }
+            }
+        }
+        return total;
+    }
+
+    // Reads the ledger file into a new map; an unreadable file leaves the current totals alone
+    private Map<String, Totals[]> load() throws IOException {
+        Map<String, Totals[]> loaded = new TreeMap<>();
+        if (!ledgerFile.exists()) {
+            return loaded;
+        }
+        try (CSVReader reader = new CSVReader(new FileReader(ledgerFile))) {
+            String[] row;
+            reader.readNext(); // Skip header
+            while ((row = reader.readNext()) != null) {
+                if (row.length < 9) {
+                    System.err.println("Skipping malformed line in " + LEDGER_FILE + ": " + String.join(",", row));
+                    continue;
+                }
+                try {
+                    int month = Integer.parseInt(row[1]);
+                    if (month < 1 || month > MONTHS) {
+                        throw new NumberFormatException("month " + month);
+                    }
+                    Totals t = new Totals(Long.parseLong(row[3]), Long.parseLong(row[4]), Long.parseLong(row[5]),
+                            Long.parseLong(row[6]), Long.parseLong(row[7]), Long.parseLong(row[8]));
+                    loaded.computeIfAbsent(key(Integer.parseInt(row[0]), row[2]), k -> new Totals[MONTHS])[month - 1] = t;
+                } catch (NumberFormatException e) {
+                    System.err.println("Skipping malformed line in " + LEDGER_FILE + ": " + String.join(",", row));
+                }
+            }
+        } catch (CsvValidationException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+        return loaded;
+    }
+
+    // Writes the ledger to a temporary file next to it, then renames it over the old one
+    private void save() throws IOException {
+        File tempFile = new File(ledgerFile.getPath() + ".tmp");
+        try (CSVWriter writer = new CSVWriter(new FileWriter(tempFile, false))) {
+            writer.writeNext(HEADER.split(","));
+            for (Map.Entry<String, Totals[]> entry : months.entrySet()) {
+                String[] key = entry.getKey().split(",", 2);
+                Totals[] byMonth = entry.getValue();
+                for (int i = 0; i < MONTHS; i++) {
+                    Totals t = byMonth[i];
+                    if (t != null) {
+                        writer.writeNext(new String[] {
+                                key[0], String.valueOf(i + 1), key[1], String.valueOf(t.gross), String.valueOf(t.sss),
+                                String.valueOf(t.philHealth), String.valueOf(t.pagIbig), String.valueOf(t.taxable),
+                                String.valueOf(t.taxWithheld)
+                        });
+                    }
+                }
+            }
+        }
+        try {
+            Files.move(tempFile.toPath(), ledgerFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tempFile.toPath(), ledgerFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
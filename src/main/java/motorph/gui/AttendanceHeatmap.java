@@ -0,0 +1,181 @@
+package motorph.gui;
+
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.event.MouseEvent;
+import java.awt.image.BufferedImage;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import javax.swing.JComponent;
+import motorph.AttendanceHeatmapData;
+
+/**
+ * Calendar heatmap with one row per series and one column per day.
+ *
+ * The grid is painted in tiles of TILE_DAYS x TILE_ROWS cells, each rendered once
+ * into a BufferedImage and reused on every repaint and scroll. A data change only
+ * drops the tile that holds the changed cell. At most MAX_CACHED_TILES tiles are
+ * kept; the least recently painted ones are rendered again when scrolled back to.
+ */
+public class AttendanceHeatmap extends JComponent {
+
+    static final int CELL_WIDTH = 8;
+    static final int CELL_HEIGHT = 14;
+    private static final int TILE_DAYS = 32;
+    private static final int TILE_ROWS = 16;
+    private static final int TILE_WIDTH = TILE_DAYS * CELL_WIDTH;
+    private static final int TILE_HEIGHT = TILE_ROWS * CELL_HEIGHT;
+    private static final int MAX_CACHED_TILES = 96;
+
+    // Minutes at which a cell reaches full color, by metric
+    private static final int[] FULL_SCALE = { 60, 180 };
+    private static final Color[] FULL_COLOR = { new Color(204, 51, 0), new Color(24, 59, 78) };
+    private static final Color ZERO_COLOR = new Color(243, 243, 224);
+    private static final Color EMPTY_COLOR = new Color(255, 255, 255);
+    private static final Color GAP_COLOR = new Color(230, 230, 230);
+    private static final DateTimeFormatter TOOLTIP_DATE = DateTimeFormatter.ofPattern("EEE MM/dd/yyyy");
+
+    private AttendanceHeatmapData data;
+    private int metric = AttendanceHeatmapData.LATENESS;
+    private int[] palette = buildPalette(metric);
+    private final Map<Long, BufferedImage> tiles = new LinkedHashMap<Long, BufferedImage>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, BufferedImage> eldest) {
+            return size() > MAX_CACHED_TILES;
+        }
+    };
+
+    public AttendanceHeatmap() {
+        setToolTipText(""); // Enables getToolTipText(MouseEvent)
+        setOpaque(true);
+    }
+
+    public AttendanceHeatmapData getData() {
+        return data;
+    }
+
+    public void setData(AttendanceHeatmapData data) {
+        this.data = data;
+        tiles.clear();
+        revalidate();
+        repaint();
+    }
+
+    public void setMetric(int metric) {
+        if (this.metric != metric) {
+            this.metric = metric;
+            palette = buildPalette(metric);
+            tiles.clear();
+            repaint();
+        }
+    }
+
+    /**
+     * Drops the tile holding a changed cell and repaints just that tile.
+     */
+    public void cellChanged(int cell) {
+        if (data == null || cell < 0) {
+            return;
+        }
+        int tileRow = data.seriesOf(cell) / TILE_ROWS;
+        int tileColumn = data.dayOf(cell) / TILE_DAYS;
+        tiles.remove(tileKey(tileRow, tileColumn));
+        repaint(tileColumn * TILE_WIDTH, tileRow * TILE_HEIGHT, TILE_WIDTH, TILE_HEIGHT);
+    }
+
+    @Override
+    public Dimension getPreferredSize() {
+        if (data == null) {
+            return new Dimension(0, 0);
+        }
+        return new Dimension(data.getDayCount() * CELL_WIDTH, data.getSeriesCount() * CELL_HEIGHT);
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        Rectangle clip = g.getClipBounds();
+        g.setColor(EMPTY_COLOR);
+        g.fillRect(clip.x, clip.y, clip.width, clip.height);
+        if (data == null) {
+            return;
+        }
+        // Only the tiles under the clip are looked up or rendered
+        int firstColumn = clip.x / TILE_WIDTH;
+        int lastColumn = Math.min((clip.x + clip.width - 1) / TILE_WIDTH, (data.getDayCount() - 1) / TILE_DAYS);
+        int firstRow = clip.y / TILE_HEIGHT;
+        int lastRow = Math.min((clip.y + clip.height - 1) / TILE_HEIGHT, (data.getSeriesCount() - 1) / TILE_ROWS);
+        for (int row = firstRow; row <= lastRow; row++) {
+            for (int column = firstColumn; column <= lastColumn; column++) {
+                BufferedImage tile = tiles.get(tileKey(row, column));
+                if (tile == null) {
+                    tile = renderTile(row, column);
+                    tiles.put(tileKey(row, column), tile);
+                }
+                g.drawImage(tile, column * TILE_WIDTH, row * TILE_HEIGHT, null);
+            }
+        }
+    }
+
+    private BufferedImage renderTile(int tileRow, int tileColumn) {
+        BufferedImage image = new BufferedImage(TILE_WIDTH, TILE_HEIGHT, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        g.setColor(EMPTY_COLOR);
+        g.fillRect(0, 0, TILE_WIDTH, TILE_HEIGHT);
+        int fullScale = FULL_SCALE[metric];
+        int seriesEnd = Math.min(data.getSeriesCount(), (tileRow + 1) * TILE_ROWS);
+        int dayEnd = Math.min(data.getDayCount(), (tileColumn + 1) * TILE_DAYS);
+        for (int series = tileRow * TILE_ROWS; series < seriesEnd; series++) {
+            int y = (series - tileRow * TILE_ROWS) * CELL_HEIGHT;
+            for (int day = tileColumn * TILE_DAYS; day < dayEnd; day++) {
+                int x = (day - tileColumn * TILE_DAYS) * CELL_WIDTH;
+                int minutes = data.value(metric, series, day);
+                if (minutes < 0) {
+                    g.setColor(GAP_COLOR);
+                } else {
+                    g.setColor(new Color(palette[Math.min(minutes, fullScale) * (palette.length - 1) / fullScale]));
+                }
+                g.fillRect(x, y, CELL_WIDTH - 1, CELL_HEIGHT - 1);
+            }
+        }
+        g.dispose();
+        return image;
+    }
+
+    @Override
+    public String getToolTipText(MouseEvent event) {
+        if (data == null) {
+            return null;
+        }
+        int day = event.getX() / CELL_WIDTH;
+        int series = event.getY() / CELL_HEIGHT;
+        if (day >= data.getDayCount() || series >= data.getSeriesCount()) {
+            return null;
+        }
+        int minutes = data.value(metric, series, day);
+        String value = minutes < 0 ? "no records"
+                : minutes + (metric == AttendanceHeatmapData.LATENESS ? " min late" : " min overtime");
+        return data.getSeriesName(series) + " - " + data.getDate(day).format(TOOLTIP_DATE) + ": " + value;
+    }
+
+    private static long tileKey(int tileRow, int tileColumn) {
+        return ((long) tileRow << 32) | tileColumn;
+    }
+
+    // 64 steps from the zero color to the metric's full color
+    private static int[] buildPalette(int metric) {
+        int[] palette = new int[64];
+        Color to = FULL_COLOR[metric];
+        for (int i = 0; i < palette.length; i++) {
+            float t = i / (float) (palette.length - 1);
+            int r = Math.round(ZERO_COLOR.getRed() + t * (to.getRed() - ZERO_COLOR.getRed()));
+            int gr = Math.round(ZERO_COLOR.getGreen() + t * (to.getGreen() - ZERO_COLOR.getGreen()));
+            int b = Math.round(ZERO_COLOR.getBlue() + t * (to.getBlue() - ZERO_COLOR.getBlue()));
+            palette[i] = (r << 16) | (gr << 8) | b;
+        }
+        return palette;
+    }
+}
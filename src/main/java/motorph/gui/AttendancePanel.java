@@ -1,82 +1,114 @@
 package motorph.gui;
 
-import javax.swing.table.DefaultTableModel;
 import java.util.List;
 import motorph.Attendance;
+import motorph.AttendanceIndex;
 import motorph.FileHandler; 
-import java.time.LocalDate;
-import java.time.Month;
+import motorph.SortedInts;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
 import javax.swing.JOptionPane;
-import java.util.Set;
-import java.util.HashSet;
-import java.util.stream.Collectors;
-import java.util.ArrayList; 
+import javax.swing.SwingWorker;
+import javax.swing.Timer;
+import java.util.ArrayList;
+import java.util.concurrent.ExecutionException;
 import java.util.Collections; 
 import java.util.Comparator; 
-import java.util.Map;
-import java.util.HashMap;
 
 public class AttendancePanel extends javax.swing.JPanel {
 
+    // Delay after the last combo box change before the table is re-filtered
+    private static final int FILTER_DELAY_MILLIS = 150;
+    private static final DateTimeFormatter MONTH_FORMATTER = DateTimeFormatter.ofPattern("MMMM yyyy");
+    // Week-of-month starts at 0 (see PayPeriodCalendar), so "All Weeks" needs a value no week has
+    private static final int ALL_WEEKS = -1;
+
     private FileHandler fileHandler;
-    private DefaultTableModel tableModel;
+    private AttendanceTableModel tableModel;
+    // Built once in the background; filters are intersections of its row-id lists
+    private AttendanceIndex attendanceIndex;
+    private Timer filterTimer;
+    // What each month and week combo box entry stands for, by item index
+    private final List<YearMonth> monthOptions = new ArrayList<>();
+    private final List<Integer> weekOptions = new ArrayList<>();
 
     public AttendancePanel() {
         initComponents();
-        fileHandler = new FileHandler();
+        fileHandler = DataContext.getInstance().getFileHandler();
         initializeTable();
-        populateEmployeeFilter(); 
-        populateMonthFilter();
-        monthComboBox.addActionListener(e -> populateWeekFilter());
+        showLoadingPlaceholders();
+        setupFilterListeners();
+        loadAttendanceData();
     }
 
     private void initializeTable() {
-        tableModel = new DefaultTableModel();
+        // Columns are defined by the model; rows are read from the records on demand
+        tableModel = new AttendanceTableModel();
         jTable1.setModel(tableModel);
+    }
 
-        // Add table columns
-        tableModel.addColumn("Employee ID");
-        tableModel.addColumn("Date");
-        tableModel.addColumn("Time In");
-        tableModel.addColumn("Time Out");
+    private void showLoadingPlaceholders() {
+        employeeIdComboBox.removeAllItems();
+        employeeIdComboBox.addItem("Loading...");
+        monthComboBox.removeAllItems();
+        monthComboBox.addItem("Loading...");
+        weekComboBox.removeAllItems();
+        weekComboBox.addItem("Loading...");
+        filterButton.setEnabled(false);
+    }
 
-        loadAttendanceData(); 
+    /*
+    The table re-filters by itself as the combo boxes change. Changes are debounced
+    so that rebuilding the week list or scrolling through a combo box filters once.
+    */
+    private void setupFilterListeners() {
+        filterTimer = new Timer(FILTER_DELAY_MILLIS, e -> filterAttendanceData());
+        filterTimer.setRepeats(false);
+        employeeIdComboBox.addActionListener(e -> filterTimer.restart());
+        monthComboBox.addActionListener(e -> {
+            populateWeekFilter();
+            filterTimer.restart();
+        });
+        weekComboBox.addActionListener(e -> filterTimer.restart());
     }
 
+    /*
+    Reads attendance and builds its index on the shared background executor. The table
+    model reads the records in place, so handing the whole list over costs one table
+    event however large it is. The filters are filled in once everything has been read.
+    */
     private void loadAttendanceData() {
-        try {
-            List<Attendance> attendanceRecords = fileHandler.getAllAttendanceRecords();
-            tableModel.setRowCount(0); // Clear existing rows
-            for (Attendance record : attendanceRecords) {
-                Object[] rowData = {
-                    record.getEmployeeId(),
-                    record.getDate(),
-                    record.getTimeIn(),
-                    record.getTimeOut()
-                };
-                tableModel.addRow(rowData);
+        BackgroundTasks.execute(new SwingWorker<AttendanceIndex, Void>() {
+            @Override
+            protected AttendanceIndex doInBackground() {
+                return DataContext.getInstance().getAttendanceIndex();
             }
-        } catch (Exception e) {
-            JOptionPane.showMessageDialog(this, "Error loading attendance data: " + e.getMessage(),
-                "Error", JOptionPane.ERROR_MESSAGE);
-            e.printStackTrace(); // Log error
-        }
+
+            @Override
+            protected void done() {
+                try {
+                    attendanceIndex = get();
+                    tableModel.setRecords(attendanceIndex.getRecords());
+                } catch (InterruptedException | ExecutionException e) {
+                    JOptionPane.showMessageDialog(AttendancePanel.this, "Error loading attendance data: " + e.getMessage(),
+                        "Error", JOptionPane.ERROR_MESSAGE);
+                    e.printStackTrace(); // Log error
+                    return;
+                }
+                populateEmployeeFilter();
+                populateMonthFilter();
+                filterButton.setEnabled(true);
+            }
+        });
     }
 
     private void populateEmployeeFilter() {
         try {
-            List<Attendance> attendanceRecords = fileHandler.getAllAttendanceRecords();
             employeeIdComboBox.removeAllItems(); // Clear existing items
             employeeIdComboBox.addItem("All"); // Add the 'All' option first
 
-            // Collect unique employee IDs
-            Set<String> uniqueEmployeeIds = new HashSet<>();
-            for (Attendance record : attendanceRecords) {
-                uniqueEmployeeIds.add(record.getEmployeeId());
-            }
-
-            // Convert Set to List for sorting
-            List<String> sortedEmployeeIds = new ArrayList<>(uniqueEmployeeIds);
+            // Unique employee IDs come straight from the index
+            List<String> sortedEmployeeIds = attendanceIndex.getEmployeeIds();
 
             // Sort the list numerically
             Collections.sort(sortedEmployeeIds, new Comparator<String>() {
@@ -106,21 +138,20 @@ public class AttendancePanel extends javax.swing.JPanel {
         }
     }
 
+    /*
+    Months come from the period index as "June 2024 (680)"; the YearMonth behind
+    each combo box entry is kept in monthOptions, with index 0 for "All Months".
+    */
     private void populateMonthFilter() {
         try {
-            List<Attendance> records = fileHandler.getAllAttendanceRecords();
-            // Use a Set to automatically handle unique months
-            Set<Month> months = records.stream()
-                                       .map(record -> record.getDate().getMonth())
-                                       .collect(Collectors.toSet());
-
+            monthOptions.clear();
+            monthOptions.add(null);
             monthComboBox.removeAllItems();
-            monthComboBox.addItem("All Months"); // Default option
-
-            // Sort months chronologically and add to combo box
-            months.stream()
-                  .sorted() // Months enum sorts correctly by default
-                  .forEach(month -> monthComboBox.addItem(month.toString()));
+            monthComboBox.addItem("All Months (" + attendanceIndex.size() + ")"); // Default option
+            for (AttendanceIndex.Period period : attendanceIndex.getPeriods()) {
+                monthOptions.add(period.getMonth());
+                monthComboBox.addItem(period.getMonth().format(MONTH_FORMATTER) + " (" + period.getCount() + ")");
+            }
         } catch (Exception e) {
              JOptionPane.showMessageDialog(this, "Error loading months: " + e.getMessage(),
                 "Error", JOptionPane.ERROR_MESSAGE);
@@ -129,43 +160,23 @@ public class AttendancePanel extends javax.swing.JPanel {
     }
 
      private void populateWeekFilter() {
-        Object selectedMonthItem = monthComboBox.getSelectedItem();
+        YearMonth selectedMonth = getSelectedMonth();
+        weekOptions.clear();
+        weekOptions.add(ALL_WEEKS);
         weekComboBox.removeAllItems();
-        weekComboBox.addItem("All Weeks");
 
-        if (selectedMonthItem == null || "All Months".equals(selectedMonthItem.toString())) {
+        if (attendanceIndex == null || selectedMonth == null) {
+            weekComboBox.addItem("All Weeks");
             return;
         }
 
         try {
-            Month selectedMonth = Month.valueOf(selectedMonthItem.toString().toUpperCase());
-            List<Attendance> records = fileHandler.getAllAttendanceRecords();
-
-            // Get all unique dates for the selected month
-            List<LocalDate> dates = records.stream()
-                .filter(record -> record.getDate().getMonth() == selectedMonth)
-                .map(Attendance::getDate)
-                .distinct()
-                .sorted()
-                .collect(Collectors.toList());
-
-            // Group dates into weeks 
-            int weekCount = 0;
-            List<LocalDate> currentWeek = new ArrayList<>();
-
-            for (LocalDate date : dates) {
-                currentWeek.add(date);
-                if (currentWeek.size() >= 5) {
-                    weekCount++;
-                    weekComboBox.addItem("Week " + weekCount);
-                    currentWeek.clear();
-                }
-            }
-
-            // Add remaining dates as final week
-            if (!currentWeek.isEmpty()) {
-                weekCount++;
-                weekComboBox.addItem("Week " + weekCount);
+            // List the pay-calendar weeks that have records in the selected month, with their counts
+            AttendanceIndex.Period period = attendanceIndex.getPeriod(selectedMonth);
+            weekComboBox.addItem("All Weeks (" + period.getCount() + ")");
+            for (int week : attendanceIndex.getWeeks(selectedMonth)) {
+                weekOptions.add(week);
+                weekComboBox.addItem("Week " + week + " (" + period.getWeekCount(week) + ")");
             }
 
         } catch (Exception e) {
@@ -175,102 +186,50 @@ public class AttendancePanel extends javax.swing.JPanel {
         }
     }
 
+    // The selected month, or null for all months
+    private YearMonth getSelectedMonth() {
+        int index = monthComboBox.getSelectedIndex();
+        return index > 0 && index < monthOptions.size() ? monthOptions.get(index) : null;
+    }
+
+    // The selected week, or ALL_WEEKS
+    private int getSelectedWeek() {
+        int index = weekComboBox.getSelectedIndex();
+        return index > 0 && index < weekOptions.size() ? weekOptions.get(index) : ALL_WEEKS;
+    }
+
 
     private void filterAttendanceData() {
+        if (attendanceIndex == null) {
+            return; // Still loading
+        }
         try {
             // Get selected filter values
             String employeeId = employeeIdComboBox.getSelectedItem() != null ? 
                 employeeIdComboBox.getSelectedItem().toString() : "All";
-            String monthStr = monthComboBox.getSelectedItem() != null ? 
-                monthComboBox.getSelectedItem().toString() : "All Months";
-            String weekStr = weekComboBox.getSelectedItem() != null ? 
-                weekComboBox.getSelectedItem().toString() : "All Weeks";
 
-            // Get all records first
-            List<Attendance> allRecords = fileHandler.getAllAttendanceRecords();
-            List<Attendance> filteredRecords = new ArrayList<>(allRecords);
+            YearMonth selectedMonth = getSelectedMonth();
+            int weekNum = getSelectedWeek(); // ALL_WEEKS or a week; a week only applies when a month is selected
 
-            // Filter by Employee ID if not "All"
+            // Intersect the sorted row-id lists of the active filters; no record is visited
+            int[] rows = null;
             if (!"All".equals(employeeId)) {
-                filteredRecords = filteredRecords.stream()
-                    .filter(record -> record.getEmployeeId().equals(employeeId))
-                    .collect(Collectors.toList());
+                rows = attendanceIndex.rowsForEmployee(employeeId);
             }
-
-            // Filter by Month if not "All Months"
-            final Month selectedMonth;
-            if (!"All Months".equals(monthStr)) {
-                try {
-                    selectedMonth = Month.valueOf(monthStr.toUpperCase());
-                    filteredRecords = filteredRecords.stream()
-                        .filter(record -> record.getDate().getMonth() == selectedMonth)
-                        .collect(Collectors.toList());
-                } catch (IllegalArgumentException e) {
-                    JOptionPane.showMessageDialog(this, "Invalid month selected", 
-                        "Error", JOptionPane.ERROR_MESSAGE);
-                    return;
-                }
-            } else {
-                selectedMonth = null;
-            }
-
-            // Filter by Week if not "All Weeks" and month is selected
-            if (selectedMonth != null && !"All Weeks".equals(weekStr)) {
-                try {
-                    final int weekNum = Integer.parseInt(weekStr.replace("Week ", ""));
-
-                    // Get all dates for this employee in the selected month
-                    List<LocalDate> allDates = filteredRecords.stream()
-                        .map(Attendance::getDate)
-                        .distinct()
-                        .sorted()
-                        .collect(Collectors.toList());
-
-                    if (!allDates.isEmpty()) {
-                        // Group dates into weeks (5 dates per week)
-                        Map<Integer, List<LocalDate>> weekGroups = new HashMap<>();
-                        int currentWeek = 1;
-                        List<LocalDate> currentWeekDates = new ArrayList<>();
-
-                        for (LocalDate date : allDates) {
-                            currentWeekDates.add(date);
-                            if (currentWeekDates.size() >= 5) {
-                                weekGroups.put(currentWeek, new ArrayList<>(currentWeekDates));
-                                currentWeek++;
-                                currentWeekDates.clear();
-                            }
-                        }
-
-                        // Add remaining dates to last week
-                        if (!currentWeekDates.isEmpty()) {
-                            weekGroups.put(currentWeek, currentWeekDates);
-                        }
-
-                        // Filter records that belong to the selected week
-                        List<LocalDate> weekDates = weekGroups.get(weekNum);
-                        if (weekDates != null) {
-                            filteredRecords = filteredRecords.stream()
-                                .filter(record -> weekDates.contains(record.getDate()))
-                                .collect(Collectors.toList());
-                        }
-                    }
-                } catch (NumberFormatException e) {
-                    JOptionPane.showMessageDialog(this, "Invalid week format", 
-                        "Error", JOptionPane.ERROR_MESSAGE);
-                    return;
+            if (selectedMonth != null) {
+                // Weeks follow the shared pay-period calendar, same as payroll
+                if (weekNum != ALL_WEEKS) {
+                    int[] weekRows = attendanceIndex.rowsForWeek(selectedMonth, weekNum);
+                    rows = rows == null ? weekRows : SortedInts.intersect(rows, weekRows);
+                } else {
+                    rows = rows == null
+                        ? attendanceIndex.rowsForMonth(selectedMonth)
+                        : attendanceIndex.restrictToMonth(rows, selectedMonth);
                 }
             }
 
-            // Update table with filtered data
-            tableModel.setRowCount(0); // Clear table
-            for (Attendance record : filteredRecords) {
-                tableModel.addRow(new Object[]{
-                    record.getEmployeeId(),
-                    record.getDate(),
-                    record.getTimeIn(),
-                    record.getTimeOut()
-                });
-            }
+            // Update table with filtered view; null shows every record
+            tableModel.setView(rows);
 
         } catch (Exception e) {
             JOptionPane.showMessageDialog(this, "Error filtering data: " + e.getMessage(),
@@ -0,0 +1,77 @@
+package motorph.gui;
+
+import java.util.Collections;
+import java.util.List;
+import javax.swing.table.AbstractTableModel;
+import motorph.Attendance;
+
+/**
+ * Table model that reads attendance straight from an in-memory list by row index.
+ * A filter is a view: an array of row indexes into that list, so re-filtering
+ * swaps one int array instead of copying records. Cell values are produced
+ * only when the table asks for a visible row.
+ */
+public class AttendanceTableModel extends AbstractTableModel {
+
+    private static final String[] COLUMN_NAMES = {"Employee ID", "Date", "Time In", "Time Out"};
+
+    private List<Attendance> records = Collections.emptyList();
+    private int[] view; // Row indexes into records, or null to show every record
+
+    /**
+     * Replaces the records and shows all of them.
+     */
+    public void setRecords(List<Attendance> records) {
+        this.records = records;
+        this.view = null;
+        fireTableDataChanged();
+    }
+
+    /**
+     * Shows only the given rows of the records (null shows all).
+     */
+    public void setView(int[] rowIndexes) {
+        this.view = rowIndexes;
+        fireTableDataChanged();
+    }
+
+    public List<Attendance> getRecords() {
+        return records;
+    }
+
+    public Attendance getRecordAt(int row) {
+        return records.get(view == null ? row : view[row]);
+    }
+
+    @Override
+    public int getRowCount() {
+        return view == null ? records.size() : view.length;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return COLUMN_NAMES.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return COLUMN_NAMES[column];
+    }
+
+    @Override
+    public Class<?> getColumnClass(int column) {
+        return String.class;
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        Attendance record = getRecordAt(row);
+        switch (column) {
+            case 0: return record.getEmployeeId();
+            case 1: return String.valueOf(record.getDate());
+            case 2: return String.valueOf(record.getTimeIn());
+            case 3: return String.valueOf(record.getTimeOut());
+            default: return null;
+        }
+    }
+}
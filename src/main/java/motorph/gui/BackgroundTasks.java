@@ -0,0 +1,47 @@
+package motorph.gui;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.swing.SwingWorker;
+
+/**
+ * Shared background executor for panel data loading.
+ * Panels read the CSV files in a SwingWorker run here instead of on the
+ * event dispatch thread, show a placeholder meanwhile, and hand the finished
+ * rows to their table model in one step.
+ * Speculative work such as prefetching goes to a separate single low-priority
+ * thread, so it never delays a load the user is waiting for.
+ */
+public final class BackgroundTasks {
+
+    private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+    private static final ExecutorService EXECUTOR = Executors.newFixedThreadPool(2, runnable -> {
+        Thread thread = new Thread(runnable, "motorph-loader-" + THREAD_COUNT.incrementAndGet());
+        thread.setDaemon(true); // Never keeps the application alive on exit
+        return thread;
+    });
+
+    private static final ExecutorService PREFETCH_EXECUTOR = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "motorph-prefetch");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        return thread;
+    });
+
+    private BackgroundTasks() {}
+
+    /**
+     * Runs a worker on the shared executor rather than SwingWorker's default one.
+     */
+    public static void execute(SwingWorker<?, ?> worker) {
+        EXECUTOR.execute(worker);
+    }
+
+    /**
+     * Runs speculative work on the low-priority prefetch thread, one task at a time.
+     */
+    public static void prefetch(Runnable task) {
+        PREFETCH_EXECUTOR.execute(task);
+    }
+}
@@ -2,43 +2,226 @@ package motorph.gui;
 
 import motorph.Employee;
 import motorph.Attendance;
+import motorph.DashboardMetrics;
+import motorph.DataChangeListener;
 import motorph.FileHandler;
 import motorph.PayrollCalculator; 
+import motorph.PayrollKernel;
 import javax.swing.*; 
 import javax.swing.table.DefaultTableModel;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.HashMap;
 import java.util.stream.Collectors;
+import java.time.Duration;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.LocalTime;
-import java.util.Comparator;
+import java.util.concurrent.ExecutionException;
 import java.time.format.DateTimeFormatter;
 
 public class DashboardPanel extends javax.swing.JPanel {
 
     private FileHandler fileHandler;
     private PayrollCalculator payrollCalculator;
+    private volatile int recentRowCount = DEFAULT_RECENT_ROWS; // Set on the EDT, read by the loader
+
+    public static final int DEFAULT_RECENT_ROWS = 50;
+    private static final int[] RECENT_ROW_CHOICES = {25, 50, 100, 200};
+
+    // KPI tile values, filled from DataContext's running DashboardMetrics
+    private JLabel headcountValue;
+    private JLabel headcountDetail;
+    private JLabel attendanceRateValue;
+    private JLabel attendanceRateDetail;
+    private JLabel lateArrivalsValue;
+    private JLabel lateArrivalsDetail;
+    private JLabel overtimeValue;
+    private JLabel overtimeDetail;
+    private JLabel payrollCostValue;
+    private JLabel payrollCostDetail;
+
+    // Refreshes the tiles on every save; registered only while the panel is showing
+    private final DataChangeListener kpiRefresher = new DataChangeListener() {
+        @Override
+        public void employeeChanged(Employee previous, Employee current) {
+            SwingUtilities.invokeLater(DashboardPanel.this::refreshKpiTiles);
+        }
+
+        @Override
+        public void attendanceChanged(Attendance previous, Attendance current) {
+            SwingUtilities.invokeLater(DashboardPanel.this::refreshKpiTiles);
+        }
+    };
+    // Fires just after midnight so "today", "this week" and "this month" move on without a save
+    private final Timer midnightTimer = new Timer(0, e -> {
+        refreshKpiTiles();
+        scheduleMidnightRefresh();
+    });
 
 
     public DashboardPanel() {
-        fileHandler = new FileHandler();
-        payrollCalculator = new PayrollCalculator(fileHandler);
+        fileHandler = DataContext.getInstance().getFileHandler();
+        payrollCalculator = DataContext.getInstance().getPayrollCalculator();
         initComponents(); 
+        setupKpiTiles();
+        setupRecentRowsMenu();
         loadDashboardData(); 
     }
 
-    // Create a new method to load data after components are initialized
+    /*
+    Fills the empty strip under the title with the KPI tiles. The metrics update
+    themselves on every save, so a change only has to re-read them.
+    */
+    private void setupKpiTiles() {
+        jPanel7.removeAll();
+        jPanel7.setLayout(new java.awt.GridLayout(1, 5, 8, 0));
+        jPanel7.setPreferredSize(new java.awt.Dimension(778, 72));
+        headcountValue = new JLabel();
+        headcountDetail = new JLabel();
+        attendanceRateValue = new JLabel();
+        attendanceRateDetail = new JLabel();
+        lateArrivalsValue = new JLabel();
+        lateArrivalsDetail = new JLabel();
+        overtimeValue = new JLabel();
+        overtimeDetail = new JLabel();
+        payrollCostValue = new JLabel();
+        payrollCostDetail = new JLabel();
+        jPanel7.add(createKpiTile("Headcount", headcountValue, headcountDetail));
+        jPanel7.add(createKpiTile("Attendance Today", attendanceRateValue, attendanceRateDetail));
+        jPanel7.add(createKpiTile("Late This Week", lateArrivalsValue, lateArrivalsDetail));
+        jPanel7.add(createKpiTile("OT Hours (MTD)", overtimeValue, overtimeDetail));
+        jPanel7.add(createKpiTile("Payroll Cost (MTD)", payrollCostValue, payrollCostDetail));
+        midnightTimer.setRepeats(false);
+    }
+
+    /*
+    Saves may come from any thread; the tiles are refreshed on the EDT. The listener
+    and the midnight timer live only while the panel is on screen, so a discarded
+    panel is not kept alive by FileHandler's listener list.
+    */
+    @Override
+    public void addNotify() {
+        super.addNotify();
+        FileHandler.addDataChangeListener(kpiRefresher);
+        scheduleMidnightRefresh();
+        refreshKpiTiles(); // Catch up on anything missed while hidden
+    }
+
+    @Override
+    public void removeNotify() {
+        FileHandler.removeDataChangeListener(kpiRefresher);
+        midnightTimer.stop();
+        super.removeNotify();
+    }
+
+    private void scheduleMidnightRefresh() {
+        long millisToMidnight = Duration.between(LocalDateTime.now(),
+                LocalDate.now().plusDays(1).atStartOfDay()).toMillis();
+        midnightTimer.setInitialDelay((int) Math.min(Integer.MAX_VALUE, millisToMidnight + 1000));
+        midnightTimer.restart();
+    }
+
+    private JPanel createKpiTile(String title, JLabel value, JLabel detail) {
+        JLabel titleLabel = new JLabel(title);
+        titleLabel.setFont(new java.awt.Font("Segoe UI", 1, 11)); // NOI18N
+        titleLabel.setForeground(new java.awt.Color(24, 59, 78));
+        value.setFont(new java.awt.Font("Segoe UI", 1, 18)); // NOI18N
+        value.setText("...");
+        detail.setFont(new java.awt.Font("Segoe UI", 0, 10)); // NOI18N
+
+        JPanel tile = new JPanel(new java.awt.GridLayout(3, 1));
+        tile.setOpaque(false);
+        tile.setBorder(BorderFactory.createEmptyBorder(2, 8, 2, 8));
+        tile.add(titleLabel);
+        tile.add(value);
+        tile.add(detail);
+        return tile;
+    }
+
+    /*
+    The totals are kept up to date by DataContext, so this is a handful of getters.
+    It still goes through the executor because the first call after midnight
+    rebuilds the metrics from the files.
+    */
+    private void refreshKpiTiles() {
+        BackgroundTasks.execute(new SwingWorker<DashboardMetrics, Void>() {
+            @Override
+            protected DashboardMetrics doInBackground() {
+                return DataContext.getInstance().getDashboardMetrics();
+            }
+
+            @Override
+            protected void done() {
+                try {
+                    displayKpis(get());
+                } catch (InterruptedException | ExecutionException e) {
+                    System.err.println("Error loading dashboard metrics: " + e.getMessage());
+                    e.printStackTrace();
+                }
+            }
+        });
+    }
+
+    private void displayKpis(DashboardMetrics metrics) {
+        headcountValue.setText(String.valueOf(metrics.getHeadcount()));
+        headcountDetail.setText(metrics.getHeadcountByStatus().entrySet().stream()
+                .map(entry -> entry.getKey() + " " + entry.getValue())
+                .collect(Collectors.joining(", ")));
+        attendanceRateValue.setText(String.format("%.0f%%", metrics.getAttendanceRateToday()));
+        attendanceRateDetail.setText(metrics.getPresentToday() + " of " + metrics.getHeadcount() + " present");
+        lateArrivalsValue.setText(String.valueOf(metrics.getLateArrivalsThisWeek()));
+        lateArrivalsDetail.setText("as of " + metrics.getDate().format(DateTimeFormatter.ofPattern("MMM d")));
+        overtimeValue.setText(String.format("%.1f", metrics.getOvertimeMinutesMonthToDate() / (double) PayrollKernel.MINUTES_PER_HOUR));
+        overtimeDetail.setText(metrics.getDate().format(DateTimeFormatter.ofPattern("MMMM yyyy")));
+        payrollCostValue.setText(String.format("%,.0f", PayrollKernel.toPesos(metrics.getPayrollCostMonthToDate())));
+        payrollCostDetail.setText("PHP, estimated");
+        headcountValue.setToolTipText(headcountDetail.getText());
+        displayEmployeeCount(metrics.getHeadcount());
+    }
+
+    /*
+    Loads the dashboard data on the shared background executor after components are
+    initialized. Placeholders are shown until the employees and attendance have been read.
+    */
     private void loadDashboardData() {
-        loadEmployeeList();       
-        loadRecentAttendance();   
-        displayEmployeeCount(); 
+        employeeList.setListData(new String[] { "Loading..." });
+        employeeCountValueLabel.setText("...");
+        attendanceTable.setModel(new DefaultTableModel(new String[] {"Emp ID", "Date", "Login", "Logout"}, 0));
+
+        BackgroundTasks.execute(new SwingWorker<Void, Void>() {
+            private List<Employee> employees;
+            private List<Attendance> recentRecords;
+            private DashboardMetrics metrics;
+
+            @Override
+            protected Void doInBackground() {
+                employees = DataContext.getInstance().getEmployees();
+                // Only the newest rows are pulled from the index; the full list is never sorted
+                recentRecords = DataContext.getInstance().getAttendanceIndex().mostRecent(recentRowCount);
+                metrics = DataContext.getInstance().getDashboardMetrics();
+                return null;
+            }
+
+            @Override
+            protected void done() {
+                try {
+                    get();
+                    loadEmployeeList(employees);
+                    loadRecentAttendance(recentRecords);
+                    displayKpis(metrics);
+                } catch (InterruptedException | ExecutionException e) {
+                    System.err.println("Error loading dashboard data: " + e.getMessage());
+                    e.printStackTrace();
+                }
+            }
+        });
     }
 
 
-    private void loadEmployeeList() {
+    private void loadEmployeeList(List<Employee> employees) {
         if (employeeList != null) {
-            List<Employee> employees = fileHandler.readEmployees();
             String[] employeeNames = employees.stream()
                     .map(emp -> emp.getEmployeeId() + " - " + emp.getLastName() + ", " + emp.getFirstName())
                     .toArray(String[]::new);
@@ -47,21 +230,39 @@ public class DashboardPanel extends javax.swing.JPanel {
     }
 
 
-    private void loadRecentAttendance() {
-        if (attendanceTable != null) {
-            List<Attendance> attendanceRecords = fileHandler.getAllAttendanceRecords();
-            attendanceRecords.sort(Comparator.comparing(Attendance::getDate).reversed()
-                                           .thenComparing(Attendance::getEmployeeId));
+    // Right-clicking the recent attendance table chooses how many records it shows
+    private void setupRecentRowsMenu() {
+        JPopupMenu menu = new JPopupMenu();
+        ButtonGroup group = new ButtonGroup();
+        for (int rows : RECENT_ROW_CHOICES) {
+            JRadioButtonMenuItem item = new JRadioButtonMenuItem("Show " + rows + " records", rows == recentRowCount);
+            item.addActionListener(e -> setRecentRowCount(rows));
+            group.add(item);
+            menu.add(item);
+        }
+        attendanceTable.setComponentPopupMenu(menu);
+        jScrollPane1.setComponentPopupMenu(menu);
+        jLabel6.setToolTipText("Right-click the table to choose how many records to show");
+    }
+
+    private void setRecentRowCount(int recentRowCount) {
+        if (this.recentRowCount != recentRowCount) {
+            this.recentRowCount = recentRowCount;
+            loadDashboardData();
+        }
+    }
+
 
+    // Records arrive newest first from AttendanceIndex.mostRecent
+    private void loadRecentAttendance(List<Attendance> recentRecords) {
+        if (attendanceTable != null) {
             String[] columnNames = {"Emp ID", "Date", "Login", "Logout"}; 
             DefaultTableModel model = new DefaultTableModel(columnNames, 0);
 
             DateTimeFormatter timeFormatter = DateTimeFormatter.ofPattern("HH:mm");
             DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("MM/dd/yyyy");
 
-
-            int recordsToShow = 50;
-            attendanceRecords.stream().limit(recordsToShow).forEach(record -> {
+            recentRecords.forEach(record -> {
                 model.addRow(new Object[]{
                     record.getEmployeeId(),
                     record.getDate().format(dateFormatter),
@@ -74,8 +275,7 @@ public class DashboardPanel extends javax.swing.JPanel {
         }
     }
     
-    private void displayEmployeeCount() {
-        int count = fileHandler.getEmployeeCount();
+    private void displayEmployeeCount(int count) {
         if (employeeCountValueLabel != null) {
             employeeCountValueLabel.setText(String.valueOf(count));
         } else {
@@ -0,0 +1,126 @@
+package motorph.gui;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.TreeSet;
+import motorph.Attendance;
+import motorph.AttendanceIndex;
+import motorph.DashboardMetrics;
+import motorph.DataChangeListener;
+import motorph.Employee;
+import motorph.FileHandler;
+import motorph.PayrollCalculator;
+
+/**
+ * In-memory copy of the employees and attendance shared by all panels.
+ * The first panel that needs the data reads it; later panels reuse it.
+ * Any save through FileHandler drops the affected list so it is re-read on next use.
+ *
+ * The lists are read-only; copy them before sorting or filtering in place.
+ */
+public final class DataContext implements DataChangeListener {
+
+    private static final DataContext INSTANCE = new DataContext();
+
+    private final FileHandler fileHandler = new FileHandler();
+    private final PayrollCalculator payrollCalculator = new PayrollCalculator(fileHandler);
+    private List<Employee> employees;
+    private List<Attendance> attendance;
+    private List<YearMonth> months;
+    private AttendanceIndex attendanceIndex;
+    private DashboardMetrics dashboardMetrics; // kept up to date from change events, not dropped
+
+    private DataContext() {
+        FileHandler.addDataChangeListener(this);
+    }
+
+    public static DataContext getInstance() {
+        return INSTANCE;
+    }
+
+    public FileHandler getFileHandler() {
+        return fileHandler;
+    }
+
+    /**
+     * Calculator shared by the panels, so they also share its payroll result cache.
+     */
+    public PayrollCalculator getPayrollCalculator() {
+        return payrollCalculator;
+    }
+
+    /**
+     * Returns the employees, reading them on first use. Call from a background thread.
+     */
+    public synchronized List<Employee> getEmployees() {
+        if (employees == null) {
+            employees = Collections.unmodifiableList(fileHandler.readEmployees());
+        }
+        return employees;
+    }
+
+    /**
+     * Returns the attendance records, reading them on first use. Call from a background thread.
+     */
+    public synchronized List<Attendance> getAttendance() {
+        if (attendance == null) {
+            attendance = Collections.unmodifiableList(fileHandler.getAllAttendanceRecords(FileHandler.employeeIds(getEmployees())));
+        }
+        return attendance;
+    }
+
+    /**
+     * Months with attendance, in order, derived from the cached attendance.
+     */
+    public synchronized List<YearMonth> getAvailableMonths() {
+        if (months == null) {
+            TreeSet<YearMonth> distinct = new TreeSet<>();
+            for (Attendance record : getAttendance()) {
+                distinct.add(YearMonth.from(record.getDate()));
+            }
+            months = Collections.unmodifiableList(new ArrayList<>(distinct));
+        }
+        return months;
+    }
+
+    /**
+     * Row-id indexes over {@link #getAttendance()}, built on first use.
+     */
+    public synchronized AttendanceIndex getAttendanceIndex() {
+        if (attendanceIndex == null) {
+            attendanceIndex = AttendanceIndex.build(getAttendance());
+        }
+        return attendanceIndex;
+    }
+
+    /**
+     * Running dashboard totals for today, built on first use and on the first call after midnight.
+     */
+    public synchronized DashboardMetrics getDashboardMetrics() {
+        if (dashboardMetrics == null || !dashboardMetrics.getDate().equals(LocalDate.now())) {
+            dashboardMetrics = new DashboardMetrics(getEmployees(), getAttendance(), LocalDate.now());
+        }
+        return dashboardMetrics;
+    }
+
+    @Override
+    public synchronized void employeeChanged(Employee previous, Employee current) {
+        employees = null;
+        if (dashboardMetrics != null) {
+            dashboardMetrics.employeeChanged(previous, current);
+        }
+    }
+
+    @Override
+    public synchronized void attendanceChanged(Attendance previous, Attendance current) {
+        attendance = null;
+        months = null;
+        attendanceIndex = null;
+        if (dashboardMetrics != null) {
+            dashboardMetrics.attendanceChanged(previous, current);
+        }
+    }
+}
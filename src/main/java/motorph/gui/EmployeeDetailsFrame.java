@@ -5,7 +5,10 @@ import java.time.format.DateTimeFormatter;
 
 public class EmployeeDetailsFrame extends javax.swing.JFrame {
 
-    
+    // Size of the picture label in the layout
+    private static final int PHOTO_WIDTH = 125;
+    private static final int PHOTO_HEIGHT = 85;
+
     public EmployeeDetailsFrame() {
         initComponents();
         setDefaultCloseOperation(javax.swing.WindowConstants.DISPOSE_ON_CLOSE);
@@ -31,6 +34,7 @@ public class EmployeeDetailsFrame extends javax.swing.JFrame {
             phoneAllowanceField.setText(String.format("%,.2f", employee.getPhoneAllowance()));
             clothingAllowanceField.setText(String.format("%,.2f", employee.getClothingAllowance()));
             hourlyRateTextField.setText(String.format("%,.2f", employee.getHourlyRate()));
+            EmployeePhotos.show(jLabel1, employee.getEmployeeId(), PHOTO_WIDTH, PHOTO_HEIGHT);
         } else {
             clearFields(); 
         }
@@ -55,6 +59,7 @@ public class EmployeeDetailsFrame extends javax.swing.JFrame {
         phoneAllowanceField.setText("");
         clothingAllowanceField.setText("");
         hourlyRateTextField.setText("");
+        EmployeePhotos.clear(jLabel1);
     }
     
     @SuppressWarnings("unchecked")
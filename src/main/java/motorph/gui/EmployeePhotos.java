@@ -0,0 +1,224 @@
+package motorph.gui;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+import javax.imageio.ImageIO;
+import javax.swing.ImageIcon;
+import javax.swing.JLabel;
+import javax.swing.SwingUtilities;
+import motorph.FileHandler;
+
+/**
+ * Employee photos for the picture labels, read from data/photos/<employee #>.png
+ * (or .jpg/.jpeg).
+ *
+ * Reading, decoding and scaling run on a photo thread of their own, never on
+ * the EDT. Scaled thumbnails are kept in memory in an LRU cache bounded by
+ * MAX_CACHE_BYTES and written to data/photos/thumbnails, so later runs read a
+ * small PNG instead of decoding the full photo again. Employees without a photo
+ * are cached too. A cached entry is shown at once and then checked against the
+ * photo's last-modified time on the photo thread, so a replaced, added or
+ * removed photo shows up the next time the employee is shown. A label always
+ * shows the photo of the last employee asked for; stale results are dropped.
+ */
+public final class EmployeePhotos {
+
+    private static final String PHOTO_FOLDER = FileHandler.DATA_FOLDER + File.separator + "photos";
+    private static final String THUMBNAIL_FOLDER = PHOTO_FOLDER + File.separator + "thumbnails";
+    private static final String[] PHOTO_EXTENSIONS = { ".png", ".jpg", ".jpeg" };
+    private static final ImageIcon PLACEHOLDER_ICON = loadPlaceholder(); // read once, not per employee
+    private static final String NO_PHOTO_TEXT = "No photo";
+    private static final long MAX_CACHE_BYTES = 16L * 1024 * 1024;
+    private static final String REQUEST_PROPERTY = "motorph.photoRequest";
+
+    private static final long NO_PHOTO_BYTES = 64; // Rough cost of a cached "no photo" entry
+
+    // Thumbnails by "employee #@widthxheight", least recently shown first
+    private static final LinkedHashMap<String, Thumbnail> CACHE = new LinkedHashMap<>(64, 0.75f, true);
+    private static long cacheBytes;
+
+    private static final ExecutorService EXECUTOR = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "motorph-photos");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        return thread;
+    });
+
+    // A scaled photo and the last-modified time of the photo it came from (0 and null when there is none)
+    private static final class Thumbnail {
+        private final long photoModified;
+        private final BufferedImage image;
+
+        Thumbnail(long photoModified, BufferedImage image) {
+            this.photoModified = photoModified;
+            this.image = image;
+        }
+    }
+
+    private EmployeePhotos() {}
+
+    /**
+     * Shows an employee's photo in the label, scaled to fit width x height.
+     * A cached thumbnail is shown at once and reloaded if the photo has changed
+     * since; otherwise the placeholder is shown until the photo has been loaded.
+     * Call on the EDT.
+     */
+    public static void show(JLabel label, String employeeId, int width, int height) {
+        AtomicReference<String> request = requestOf(label);
+        request.set(employeeId);
+        String key = employeeId + "@" + width + "x" + height;
+
+        Thumbnail cached = getCached(key);
+        if (cached != null) {
+            display(label, cached);
+        } else {
+            setPlaceholder(label);
+        }
+        EXECUTOR.execute(() -> {
+            if (!employeeId.equals(request.get())) {
+                return; // Already moved on to another employee
+            }
+            File photo = findPhoto(employeeId);
+            long photoModified = photo != null ? photo.lastModified() : 0;
+            if (cached != null && cached.photoModified == photoModified) {
+                return; // Still up to date
+            }
+            Thumbnail thumbnail = new Thumbnail(photoModified,
+                    photo != null ? loadThumbnail(photo, employeeId, width, height) : null);
+            putCached(key, thumbnail);
+            SwingUtilities.invokeLater(() -> {
+                if (employeeId.equals(request.get())) {
+                    display(label, thumbnail);
+                }
+            });
+        });
+    }
+
+    /**
+     * Clears the label back to the placeholder and drops any pending request for it.
+     */
+    public static void clear(JLabel label) {
+        requestOf(label).set(null);
+        setPlaceholder(label);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static AtomicReference<String> requestOf(JLabel label) {
+        Object request = label.getClientProperty(REQUEST_PROPERTY);
+        if (request == null) {
+            request = new AtomicReference<String>();
+            label.putClientProperty(REQUEST_PROPERTY, request);
+        }
+        return (AtomicReference<String>) request;
+    }
+
+    private static void display(JLabel label, Thumbnail thumbnail) {
+        if (thumbnail.image != null) {
+            label.setIcon(new ImageIcon(thumbnail.image));
+            label.setText("");
+        } else {
+            setPlaceholder(label);
+        }
+    }
+
+    private static void setPlaceholder(JLabel label) {
+        label.setIcon(PLACEHOLDER_ICON);
+        label.setText(NO_PHOTO_TEXT);
+    }
+
+    private static ImageIcon loadPlaceholder() {
+        java.net.URL url = EmployeePhotos.class.getResource("/resources/icons/user.png");
+        return url != null ? new ImageIcon(url) : null;
+    }
+
+    private static synchronized Thumbnail getCached(String key) {
+        return CACHE.get(key);
+    }
+
+    private static synchronized void putCached(String key, Thumbnail thumbnail) {
+        Thumbnail previous = CACHE.put(key, thumbnail);
+        if (previous != null) {
+            cacheBytes -= sizeOf(previous);
+        }
+        cacheBytes += sizeOf(thumbnail);
+        // Evict least recently shown thumbnails until back under the limit
+        Iterator<Map.Entry<String, Thumbnail>> eldest = CACHE.entrySet().iterator();
+        while (cacheBytes > MAX_CACHE_BYTES && eldest.hasNext()) {
+            Map.Entry<String, Thumbnail> entry = eldest.next();
+            if (entry.getKey().equals(key)) {
+                continue;
+            }
+            cacheBytes -= sizeOf(entry.getValue());
+            eldest.remove();
+        }
+    }
+
+    private static long sizeOf(Thumbnail thumbnail) {
+        BufferedImage image = thumbnail.image;
+        return image == null ? NO_PHOTO_BYTES : (long) image.getWidth() * image.getHeight() * 4;
+    }
+
+    /*
+    Runs on the photo thread. Uses the thumbnail on disk when it is newer than
+    the photo; otherwise decodes and scales the photo and writes a new thumbnail.
+    Returns null when the photo cannot be read.
+    */
+    private static BufferedImage loadThumbnail(File photo, String employeeId, int width, int height) {
+        File thumbnailFile = new File(THUMBNAIL_FOLDER, employeeId + "-" + width + "x" + height + ".png");
+        try {
+            if (thumbnailFile.exists() && thumbnailFile.lastModified() >= photo.lastModified()) {
+                BufferedImage thumbnail = ImageIO.read(thumbnailFile);
+                if (thumbnail != null) {
+                    return thumbnail;
+                }
+            }
+            BufferedImage source = ImageIO.read(photo);
+            if (source == null) {
+                System.err.println("Unsupported photo format: " + photo.getPath());
+                return null;
+            }
+            BufferedImage thumbnail = scaleToFit(source, width, height);
+            File folder = thumbnailFile.getParentFile();
+            if (folder.exists() || folder.mkdirs()) {
+                ImageIO.write(thumbnail, "png", thumbnailFile);
+            }
+            return thumbnail;
+        } catch (IOException e) {
+            System.err.println("Error loading photo for employee " + employeeId + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static File findPhoto(String employeeId) {
+        for (String extension : PHOTO_EXTENSIONS) {
+            File photo = new File(PHOTO_FOLDER, employeeId + extension);
+            if (photo.isFile()) {
+                return photo;
+            }
+        }
+        return null;
+    }
+
+    // Scales down to fit the box, keeping the aspect ratio; never scales up
+    private static BufferedImage scaleToFit(BufferedImage source, int width, int height) {
+        double scale = Math.min(1.0, Math.min(width / (double) source.getWidth(), height / (double) source.getHeight()));
+        int scaledWidth = Math.max(1, (int) Math.round(source.getWidth() * scale));
+        int scaledHeight = Math.max(1, (int) Math.round(source.getHeight() * scale));
+        BufferedImage scaled = new BufferedImage(scaledWidth, scaledHeight, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = scaled.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+        g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+        g.drawImage(source, 0, 0, scaledWidth, scaledHeight, null);
+        g.dispose();
+        return scaled;
+    }
+}
@@ -0,0 +1,252 @@
+package motorph.gui;
+
+import java.awt.Dimension;
+import java.awt.event.FocusAdapter;
+import java.awt.event.FocusEvent;
+import java.awt.event.KeyAdapter;
+import java.awt.event.KeyEvent;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import javax.swing.AbstractListModel;
+import javax.swing.JList;
+import javax.swing.JPopupMenu;
+import javax.swing.JScrollPane;
+import javax.swing.JTextField;
+import javax.swing.ListSelectionModel;
+import javax.swing.SwingUtilities;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import motorph.Employee;
+import motorph.EmployeeTrie;
+
+/**
+ * Type-ahead employee field. Typing an employee number or the start of any name
+ * lists the matches from an EmployeeTrie in a popup; choosing one makes it the
+ * selected Employee and fires a "selectedEmployee" property change.
+ *
+ * The popup list only creates cells for the visible rows, whatever the number
+ * of matches, so the field stays quick with thousands of employees.
+ */
+public class EmployeePicker extends JTextField {
+
+    public static final String SELECTED_EMPLOYEE_PROPERTY = "selectedEmployee";
+
+    private static final int VISIBLE_ROWS = 12;
+    private static final int ROW_HEIGHT = 18;
+
+    private EmployeeTrie trie;
+    private Employee selectedEmployee;
+    private final MatchListModel matches = new MatchListModel();
+    private final JList<String> matchList = new JList<>(matches);
+    private final JPopupMenu popup = new JPopupMenu();
+    private boolean updatingText; // true while the text is set from code rather than typed
+
+    // The current matches as positions in the trie; cells are formatted only when shown
+    private class MatchListModel extends AbstractListModel<String> {
+        private int[] positions = new int[0];
+
+        void setPositions(int[] positions) {
+            int oldSize = this.positions.length;
+            this.positions = positions;
+            if (oldSize > 0) {
+                fireIntervalRemoved(this, 0, oldSize - 1);
+            }
+            if (positions.length > 0) {
+                fireIntervalAdded(this, 0, positions.length - 1);
+            }
+        }
+
+        Employee getEmployeeAt(int index) {
+            return trie.get(positions[index]);
+        }
+
+        @Override
+        public int getSize() {
+            return positions.length;
+        }
+
+        @Override
+        public String getElementAt(int index) {
+            return displayText(getEmployeeAt(index));
+        }
+    }
+
+    public EmployeePicker() {
+        matchList.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        matchList.setFocusable(false);
+        // Fixed cell sizes keep JList from measuring every match
+        matchList.setFixedCellHeight(ROW_HEIGHT);
+        matchList.setFixedCellWidth(260);
+        matchList.setVisibleRowCount(VISIBLE_ROWS);
+        JScrollPane scrollPane = new JScrollPane(matchList);
+        scrollPane.setBorder(null);
+        popup.setFocusable(false);
+        popup.add(scrollPane);
+
+        getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) { textEdited(); }
+            @Override
+            public void removeUpdate(DocumentEvent e) { textEdited(); }
+            @Override
+            public void changedUpdate(DocumentEvent e) { }
+        });
+        addKeyListener(new KeyAdapter() {
+            @Override
+            public void keyPressed(KeyEvent e) {
+                handleKey(e);
+            }
+        });
+        addFocusListener(new FocusAdapter() {
+            @Override
+            public void focusGained(FocusEvent e) {
+                selectAll();
+            }
+
+            @Override
+            public void focusLost(FocusEvent e) {
+                // Put back the chosen employee if the typing was abandoned
+                popup.setVisible(false);
+                setTextQuietly(selectedEmployee != null ? displayText(selectedEmployee) : "");
+            }
+        });
+        matchList.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                int index = matchList.locationToIndex(e.getPoint());
+                if (index >= 0) {
+                    choose(matches.getEmployeeAt(index));
+                }
+            }
+        });
+    }
+
+    /**
+     * Shows the employees of the trie and selects the one that was selected
+     * before, or else the first. Call on the EDT; build the trie in the background.
+     */
+    public void setEmployees(EmployeeTrie trie) {
+        this.trie = trie;
+        setEnabled(true);
+        // Keep the same employee selected across a reload; otherwise start at the first
+        int position = selectedEmployee != null ? trie.positionOf(selectedEmployee.getEmployeeId()) : -1;
+        if (position < 0 && trie.size() > 0) {
+            position = 0;
+        }
+        choose(position >= 0 ? trie.get(position) : null);
+    }
+
+    /**
+     * Disables the field and shows a message, e.g. while the employees are loading.
+     */
+    public void showMessage(String message) {
+        trie = null;
+        popup.setVisible(false);
+        setEnabled(false);
+        Employee old = selectedEmployee;
+        selectedEmployee = null;
+        setTextQuietly(message);
+        firePropertyChange(SELECTED_EMPLOYEE_PROPERTY, old, null);
+    }
+
+    public Employee getSelectedEmployee() {
+        return selectedEmployee;
+    }
+
+    /**
+     * The employee listed after the given one, or null for the last one.
+     */
+    public Employee getEmployeeAfter(Employee employee) {
+        if (trie == null || employee == null) {
+            return null;
+        }
+        int position = trie.positionOf(employee.getEmployeeId());
+        return position >= 0 && position + 1 < trie.size() ? trie.get(position + 1) : null;
+    }
+
+    private static String displayText(Employee employee) {
+        return employee.getEmployeeId() + " - " + employee.getLastName() + ", " + employee.getFirstName();
+    }
+
+    private void choose(Employee employee) {
+        popup.setVisible(false);
+        Employee old = selectedEmployee;
+        selectedEmployee = employee;
+        setTextQuietly(employee != null ? displayText(employee) : "");
+        if (old != employee) {
+            firePropertyChange(SELECTED_EMPLOYEE_PROPERTY, old, employee);
+        }
+    }
+
+    private void setTextQuietly(String text) {
+        updatingText = true;
+        try {
+            setText(text);
+        } finally {
+            updatingText = false;
+        }
+    }
+
+    private void textEdited() {
+        if (updatingText || trie == null) {
+            return;
+        }
+        // Document events arrive mid-edit; look up once the edit is complete
+        SwingUtilities.invokeLater(() -> {
+            if (trie == null || !isFocusOwner()) {
+                return;
+            }
+            matches.setPositions(trie.search(getText()));
+            showMatches();
+        });
+    }
+
+    private void showMatches() {
+        if (matches.getSize() == 0) {
+            popup.setVisible(false);
+            return;
+        }
+        matchList.setSelectedIndex(0);
+        matchList.ensureIndexIsVisible(0);
+        int rows = Math.min(VISIBLE_ROWS, matches.getSize());
+        popup.setPopupSize(new Dimension(Math.max(getWidth(), 260), rows * ROW_HEIGHT + 4));
+        if (!popup.isVisible()) {
+            popup.show(this, 0, getHeight());
+        }
+    }
+
+    private void handleKey(KeyEvent e) {
+        if (trie == null) {
+            return;
+        }
+        switch (e.getKeyCode()) {
+            case KeyEvent.VK_DOWN:
+            case KeyEvent.VK_UP:
+                if (!popup.isVisible()) {
+                    matches.setPositions(trie.search(""));
+                    showMatches();
+                } else {
+                    int step = e.getKeyCode() == KeyEvent.VK_DOWN ? 1 : -1;
+                    int index = Math.max(0, Math.min(matches.getSize() - 1, matchList.getSelectedIndex() + step));
+                    matchList.setSelectedIndex(index);
+                    matchList.ensureIndexIsVisible(index);
+                }
+                e.consume();
+                break;
+            case KeyEvent.VK_ENTER:
+                if (popup.isVisible() && matchList.getSelectedIndex() >= 0) {
+                    choose(matches.getEmployeeAt(matchList.getSelectedIndex()));
+                    e.consume();
+                }
+                break;
+            case KeyEvent.VK_ESCAPE:
+                if (popup.isVisible()) {
+                    choose(selectedEmployee);
+                    e.consume();
+                }
+                break;
+            default:
+                break;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package motorph.gui;
+
+import java.util.Comparator;
+import javax.swing.DefaultRowSorter;
+
+/**
+ * Sorts an EmployeeTableModel by the sort keys it precomputed instead of by
+ * cell text, so a click on a header compares numbers and collation keys and
+ * formats nothing. The employee number column sorts numerically.
+ */
+public class EmployeeRowSorter extends DefaultRowSorter<EmployeeTableModel, Integer> {
+
+    public EmployeeRowSorter(EmployeeTableModel model) {
+        setModelWrapper(new ModelWrapper<EmployeeTableModel, Integer>() {
+            @Override
+            public EmployeeTableModel getModel() {
+                return model;
+            }
+
+            @Override
+            public int getColumnCount() {
+                return model.getColumnCount();
+            }
+
+            @Override
+            public int getRowCount() {
+                return model.getRowCount();
+            }
+
+            @Override
+            public Object getValueAt(int row, int column) {
+                return model.getSortKey(row, column);
+            }
+
+            @Override
+            public Integer getIdentifier(int row) {
+                return row;
+            }
+        });
+    }
+
+    @Override
+    public Comparator<?> getComparator(int column) {
+        return Comparator.naturalOrder();
+    }
+
+    @Override
+    protected boolean useToString(int column) {
+        return false; // Compare the keys themselves
+    }
+}
@@ -0,0 +1,131 @@
+package motorph.gui;
+
+import java.text.CollationKey;
+import java.text.Collator;
+import java.util.Collections;
+import java.util.List;
+import javax.swing.table.AbstractTableModel;
+import motorph.Employee;
+
+/**
+ * Table model over an in-memory employee list, read by row index.
+ *
+ * Cell text and sort keys are worked out once per employee, in the background,
+ * by Rows; the table and its EmployeeRowSorter only look them up. A filter is
+ * a view: an array of row indexes into the list, as in AttendanceTableModel.
+ */
+public class EmployeeTableModel extends AbstractTableModel {
+
+    private static final String[] COLUMN_NAMES = {"Employee Number", "Last Name", "First Name", "SSS Number", "PhilHealth Number", "TIN", "Pag-IBIG Number"};
+
+    private Rows rows = new Rows(Collections.<Employee>emptyList());
+    private int[] view; // Row indexes into the employees, or null to show every employee
+
+    /**
+     * Cell text and sort keys for a list of employees. Build it off the EDT.
+     */
+    public static final class Rows {
+        private final List<Employee> employees;
+        private final String[][] values;
+        private final Comparable<?>[][] sortKeys;
+
+        public Rows(List<Employee> employees) {
+            this.employees = employees;
+            values = new String[employees.size()][];
+            sortKeys = new Comparable<?>[employees.size()][];
+            Collator collator = Collator.getInstance(); // Not thread-safe; one per build
+            collator.setStrength(Collator.SECONDARY); // Ignore case when sorting
+            for (int i = 0; i < values.length; i++) {
+                Employee employee = employees.get(i);
+                String[] row = {
+                    employee.getEmployeeId(), employee.getLastName(), employee.getFirstName(),
+                    employee.getSssNumber(), employee.getPhilhealthNumber(), employee.getTinNumber(),
+                    employee.getPagibigNumber()
+                };
+                Comparable<?>[] keys = new Comparable<?>[row.length];
+                for (int column = 0; column < row.length; column++) {
+                    if (row[column] == null) {
+                        row[column] = "";
+                    }
+                    keys[column] = column == 0 ? numericKey(row[column]) : collator.getCollationKey(row[column]);
+                }
+                values[i] = row;
+                sortKeys[i] = keys;
+            }
+        }
+
+        public int size() {
+            return employees.size();
+        }
+    }
+
+    // Employee numbers sort by value, so 10002 comes before 10010; anything else sorts last
+    private static Long numericKey(String employeeId) {
+        try {
+            return Long.parseLong(employeeId.trim());
+        } catch (NumberFormatException e) {
+            return Long.MAX_VALUE;
+        }
+    }
+
+    /**
+     * Replaces the rows and shows all of them.
+     */
+    public void setRows(Rows rows) {
+        this.rows = rows;
+        this.view = null;
+        fireTableDataChanged();
+    }
+
+    /**
+     * Shows only the given rows of the employees (null shows all).
+     */
+    public void setView(int[] rowIndexes) {
+        this.view = rowIndexes;
+        fireTableDataChanged();
+    }
+
+    public Employee getEmployeeAt(int row) {
+        return rows.employees.get(toIndex(row));
+    }
+
+    public int getEmployeeCount() {
+        return rows.size();
+    }
+
+    /**
+     * Precomputed key that EmployeeRowSorter compares for a cell.
+     */
+    public Comparable<?> getSortKey(int row, int column) {
+        return rows.sortKeys[toIndex(row)][column];
+    }
+
+    private int toIndex(int row) {
+        return view == null ? row : view[row];
+    }
+
+    @Override
+    public int getRowCount() {
+        return view == null ? rows.size() : view.length;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return COLUMN_NAMES.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return COLUMN_NAMES[column];
+    }
+
+    @Override
+    public Class<?> getColumnClass(int column) {
+        return String.class;
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        return rows.values[toIndex(row)][column];
+    }
+}
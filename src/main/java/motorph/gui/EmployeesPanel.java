@@ -1,67 +1,123 @@
 package motorph.gui;
 
 import javax.swing.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
 import javax.swing.event.ListSelectionEvent;
 import javax.swing.event.ListSelectionListener;
-import javax.swing.table.DefaultTableModel;
 import motorph.FileHandler;
 import motorph.Employee;
+import motorph.EmployeeSearchIndex;
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.ExecutionException;
 import java.time.format.DateTimeFormatter;
 import java.awt.Frame; 
 
 public class EmployeesPanel extends javax.swing.JPanel {
 
+    // Delay after the last keystroke before the table is re-filtered
+    private static final int SEARCH_DELAY_MILLIS = 100;
+
     private FileHandler fileHandler;
     private JDialog addEmployeeDialog;
     private EmployeeDetailsFrame detailsFrame;
+    private SwingWorker<Void, Void> loadWorker;
+    private EmployeeTableModel tableModel;
+    // Built with the rows in the background; the search box looks matches up here
+    private EmployeeSearchIndex searchIndex;
+    private Timer searchTimer;
     private static final DateTimeFormatter MDY_FORMATTER = DateTimeFormatter.ofPattern("MM/dd/yyyy");
 
     public EmployeesPanel() {
         initComponents();
-        fileHandler = new FileHandler();
+        fileHandler = DataContext.getInstance().getFileHandler();
+        initializeTable();
+        setupSearchField();
         displayEmployees();
         detailsFrame = new EmployeeDetailsFrame(); 
         setupTableSelectionListener();
         setupAddEmployeeButton(); 
     }
 
+    private void initializeTable() {
+        // Columns are defined by the model; sorting compares its precomputed keys
+        tableModel = new EmployeeTableModel();
+        employeesPanelTable.setModel(tableModel);
+        employeesPanelTable.setRowSorter(new EmployeeRowSorter(tableModel));
+    }
+
+    /*
+    The table re-filters as the user types. Keystrokes are debounced so that a
+    quickly typed word filters once.
+    */
+    private void setupSearchField() {
+        searchTimer = new Timer(SEARCH_DELAY_MILLIS, e -> applySearch());
+        searchTimer.setRepeats(false);
+        searchField.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) { searchTimer.restart(); }
+            @Override
+            public void removeUpdate(DocumentEvent e) { searchTimer.restart(); }
+            @Override
+            public void changedUpdate(DocumentEvent e) { }
+        });
+    }
+
+    /*
+    Reads the employees, and works out the cell text, sort keys and search index,
+    on the shared background executor. The EDT only swaps the results in.
+    */
     private void displayEmployees() {
-        List<Employee> employees = fileHandler.readEmployees();
-        DefaultTableModel model = (DefaultTableModel) employeesPanelTable.getModel();
-        model.setRowCount(0);
-
-
-        String[] columnNames = {"Employee Number", "Last Name", "First Name", "SSS Number", "PhilHealth Number", "TIN", "Pag-IBIG Number"};
-        model.setColumnIdentifiers(columnNames);
-
-        for (Employee employee : employees) {
-            Map<String, String> employeeData = employee.toMap(); 
-            
-            // Correct keys from Employee.toMap()
-            Object[] row = {
-                employeeData.get("Employee #"),        
-                employeeData.get("Last Name"),         
-                employeeData.get("First Name"),        
-                employeeData.get("SSS #"),             
-                employeeData.get("Philhealth #"),      
-                employeeData.get("TIN #"),             
-                employeeData.get("Pag-ibig #")         
-            };
-            
-            // Ensure all row data elements are strings or handle nulls appropriately
-            for (int i = 0; i < row.length; i++) {
-                if (row[i] == null) {
-                    row[i] = ""; // Replace null with empty string for display
-                } else {
-                    // Ensure it's a string
-                    row[i] = String.valueOf(row[i]); 
+        viewEmployeeDetailsButton.setEnabled(false); 
+        jLabel1.setText("Loading employees..."); // Placeholder until the rows arrive
+
+        if (loadWorker != null) {
+            loadWorker.cancel(false); // A refresh replaces a load still in progress
+        }
+        loadWorker = new SwingWorker<Void, Void>() {
+            private EmployeeTableModel.Rows rows;
+            private EmployeeSearchIndex index;
+
+            @Override
+            protected Void doInBackground() {
+                List<Employee> employees = DataContext.getInstance().getEmployees();
+                rows = new EmployeeTableModel.Rows(employees);
+                index = new EmployeeSearchIndex(employees);
+                return null;
+            }
+
+            @Override
+            protected void done() {
+                if (isCancelled()) {
+                    return;
+                }
+                try {
+                    get();
+                    tableModel.setRows(rows);
+                    searchIndex = index;
+                    applySearch(); // Keeps the search typed before a refresh
+                } catch (InterruptedException | ExecutionException e) {
+                    jLabel1.setText("List of Employees");
+                    JOptionPane.showMessageDialog(EmployeesPanel.this, "Error loading employees: " + e.getMessage(),
+                        "Error", JOptionPane.ERROR_MESSAGE);
+                    e.printStackTrace();
                 }
             }
-            model.addRow(row);
+        };
+        BackgroundTasks.execute(loadWorker);
+    }
+
+    private void applySearch() {
+        if (searchIndex == null) {
+            return; // Still loading; applied once the index is built
+        }
+        int[] rows = searchIndex.search(searchField.getText());
+        tableModel.setView(rows); // null shows every employee
+        if (rows == null) {
+            jLabel1.setText("List of Employees");
+        } else {
+            jLabel1.setText("Showing " + rows.length + " of " + tableModel.getEmployeeCount() + " employees");
         }
-        viewEmployeeDetailsButton.setEnabled(false); 
     }
 
 
@@ -79,7 +135,9 @@ public class EmployeesPanel extends javax.swing.JPanel {
     private void viewEmployeeDetails() {
         int selectedRow = employeesPanelTable.getSelectedRow();
         if (selectedRow != -1) { 
-            String employeeId = (String) employeesPanelTable.getValueAt(selectedRow, 0);
+            // The selection is in sorted order; the model knows which employee it is
+            int modelRow = employeesPanelTable.convertRowIndexToModel(selectedRow);
+            String employeeId = tableModel.getEmployeeAt(modelRow).getEmployeeId();
             Employee employee = fileHandler.getEmployeeById(employeeId); 
 
             if (employee != null) {
@@ -120,6 +178,8 @@ public class EmployeesPanel extends javax.swing.JPanel {
         employeesPanelTable = new javax.swing.JTable();
         viewEmployeeDetailsButton = new javax.swing.JButton();
         refreshEmployeeTable = new javax.swing.JButton();
+        searchLabel = new javax.swing.JLabel();
+        searchField = new javax.swing.JTextField();
 
         setBackground(new java.awt.Color(255, 255, 255));
 
@@ -178,6 +238,10 @@ public class EmployeesPanel extends javax.swing.JPanel {
             }
         });
 
+        searchLabel.setText("Search:");
+
+        searchField.setToolTipText("Name, position or government ID");
+
         javax.swing.GroupLayout layout = new javax.swing.GroupLayout(this);
         this.setLayout(layout);
         layout.setHorizontalGroup(
@@ -195,7 +259,11 @@ public class EmployeesPanel extends javax.swing.JPanel {
                             .addComponent(employeeTable, javax.swing.GroupLayout.PREFERRED_SIZE, 781, javax.swing.GroupLayout.PREFERRED_SIZE)))
                     .addGroup(javax.swing.GroupLayout.Alignment.LEADING, layout.createSequentialGroup()
                         .addGap(42, 42, 42)
-                        .addComponent(jLabel1, javax.swing.GroupLayout.PREFERRED_SIZE, 301, javax.swing.GroupLayout.PREFERRED_SIZE)
+                        .addComponent(jLabel1, javax.swing.GroupLayout.PREFERRED_SIZE, 200, javax.swing.GroupLayout.PREFERRED_SIZE)
+                        .addGap(18, 18, 18)
+                        .addComponent(searchLabel)
+                        .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.RELATED)
+                        .addComponent(searchField, javax.swing.GroupLayout.PREFERRED_SIZE, 200, javax.swing.GroupLayout.PREFERRED_SIZE)
                         .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.RELATED, javax.swing.GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE)
                         .addComponent(refreshEmployeeTable)
                         .addGap(18, 18, 18)
@@ -217,7 +285,9 @@ public class EmployeesPanel extends javax.swing.JPanel {
                         .addGap(0, 6, Short.MAX_VALUE)
                         .addGroup(layout.createParallelGroup(javax.swing.GroupLayout.Alignment.BASELINE)
                             .addComponent(viewEmployeeDetailsButton)
-                            .addComponent(refreshEmployeeTable))))
+                            .addComponent(refreshEmployeeTable)
+                            .addComponent(searchField, javax.swing.GroupLayout.PREFERRED_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.PREFERRED_SIZE)
+                            .addComponent(searchLabel))))
                 .addComponent(employeeTable, javax.swing.GroupLayout.PREFERRED_SIZE, 347, javax.swing.GroupLayout.PREFERRED_SIZE)
                 .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.RELATED)
                 .addComponent(addEmployeeButton)
@@ -258,6 +328,8 @@ public class EmployeesPanel extends javax.swing.JPanel {
     private javax.swing.JLabel jLabel1;
     private javax.swing.JPanel jPanel13;
     private javax.swing.JButton refreshEmployeeTable;
+    private javax.swing.JTextField searchField;
+    private javax.swing.JLabel searchLabel;
     private javax.swing.JButton viewEmployeeDetailsButton;
     // End of variables declaration//GEN-END:variables
 }
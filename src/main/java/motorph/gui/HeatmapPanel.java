@@ -0,0 +1,269 @@
+package motorph.gui;
+
+import java.awt.BorderLayout;
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.FlowLayout;
+import java.awt.Font;
+import java.awt.Graphics;
+import java.awt.Rectangle;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import javax.swing.JComboBox;
+import javax.swing.JComponent;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.SwingUtilities;
+import javax.swing.SwingWorker;
+import motorph.Attendance;
+import motorph.AttendanceHeatmapData;
+import motorph.DataChangeListener;
+import motorph.Employee;
+import motorph.FileHandler;
+
+/**
+ * Lateness and overtime by day, per employee or per team, as a scrollable heatmap.
+ *
+ * Laid out by hand rather than in the GUI builder: the grid and both of its
+ * headers are custom-painted components sized from the loaded data.
+ */
+public class HeatmapPanel extends JPanel {
+
+    private static final int ROW_HEADER_WIDTH = 190;
+    private static final int COLUMN_HEADER_HEIGHT = 18;
+    private static final DateTimeFormatter MONTH_LABEL = DateTimeFormatter.ofPattern("MMM yyyy");
+
+    private final AttendanceHeatmap heatmap = new AttendanceHeatmap();
+    private final JComboBox<String> viewComboBox = new JComboBox<>(new String[] { "Employees", "Teams" });
+    private final JComboBox<String> metricComboBox = new JComboBox<>(new String[] { "Lateness", "Overtime" });
+    private final JLabel statusLabel = new JLabel("Loading attendance...");
+    private final JComponent rowHeader = new RowHeader();
+    private final JComponent columnHeader = new ColumnHeader();
+    private AttendanceHeatmapData employeeData;
+    private AttendanceHeatmapData teamData;
+    private boolean loading;            // A load is running; EDT only
+    private boolean changedWhileLoading; // Data changed during that load, so it is run again
+    private boolean removed;            // Taken off screen; changes were not followed meanwhile
+    // Registered only while the panel is showing, so a discarded panel is not kept alive
+    private final DataChangeListener changeListener = new DataChangeListener() {
+        @Override
+        public void employeeChanged(Employee previous, Employee current) {
+            // Series and teams may have moved; rebuild
+            SwingUtilities.invokeLater(HeatmapPanel.this::loadHeatmapData);
+        }
+
+        @Override
+        public void attendanceChanged(Attendance previous, Attendance current) {
+            SwingUtilities.invokeLater(() -> applyAttendanceChange(previous, current));
+        }
+    };
+
+    public HeatmapPanel() {
+        initComponents();
+        loadHeatmapData();
+    }
+
+    @Override
+    public void addNotify() {
+        super.addNotify();
+        // DataContext registers its own listener when it is created. Creating it first
+        // means it drops its stale lists before this panel hears about a change.
+        DataContext.getInstance();
+        FileHandler.addDataChangeListener(changeListener);
+        if (removed) {
+            removed = false;
+            loadHeatmapData(); // Catch up on anything missed while removed
+        }
+    }
+
+    @Override
+    public void removeNotify() {
+        FileHandler.removeDataChangeListener(changeListener);
+        removed = true;
+        super.removeNotify();
+    }
+
+    private void initComponents() {
+        setBackground(new Color(255, 255, 255));
+        setLayout(new BorderLayout());
+
+        JLabel title = new JLabel("Attendance Heatmap");
+        title.setFont(new Font("Segoe UI", 1, 24)); // NOI18N
+        title.setForeground(new Color(24, 59, 78));
+
+        JPanel controls = new JPanel(new FlowLayout(FlowLayout.LEFT, 10, 8));
+        controls.setOpaque(false);
+        controls.add(title);
+        controls.add(new JLabel("View:"));
+        controls.add(viewComboBox);
+        controls.add(new JLabel("Show:"));
+        controls.add(metricComboBox);
+        controls.add(statusLabel);
+        add(controls, BorderLayout.NORTH);
+
+        JScrollPane scrollPane = new JScrollPane(heatmap);
+        scrollPane.setRowHeaderView(rowHeader);
+        scrollPane.setColumnHeaderView(columnHeader);
+        scrollPane.getHorizontalScrollBar().setUnitIncrement(AttendanceHeatmap.CELL_WIDTH * 7);
+        scrollPane.getVerticalScrollBar().setUnitIncrement(AttendanceHeatmap.CELL_HEIGHT);
+        add(scrollPane, BorderLayout.CENTER);
+
+        viewComboBox.addActionListener(e -> showSelectedView());
+        metricComboBox.addActionListener(e -> heatmap.setMetric(metricComboBox.getSelectedIndex() == 1
+                ? AttendanceHeatmapData.OVERTIME : AttendanceHeatmapData.LATENESS));
+    }
+
+    /*
+    Aggregates both views on the shared background executor; the EDT only swaps them in.
+    A load requested while one is running is run once that one has been swapped in,
+    since the running load may have read the data before the change.
+    */
+    private void loadHeatmapData() {
+        if (loading) {
+            changedWhileLoading = true;
+            return;
+        }
+        loading = true;
+        BackgroundTasks.execute(new SwingWorker<Void, Void>() {
+            private AttendanceHeatmapData byEmployee;
+            private AttendanceHeatmapData byTeam;
+
+            @Override
+            protected Void doInBackground() {
+                List<Employee> employees = DataContext.getInstance().getEmployees();
+                List<Attendance> attendance = DataContext.getInstance().getAttendance();
+                byEmployee = AttendanceHeatmapData.byEmployee(employees, attendance);
+                byTeam = AttendanceHeatmapData.byTeam(employees, attendance);
+                return null;
+            }
+
+            @Override
+            protected void done() {
+                try {
+                    get();
+                    employeeData = byEmployee;
+                    teamData = byTeam;
+                    statusLabel.setText(byEmployee.getDate(0) + " to " + byEmployee.getDate(byEmployee.getDayCount() - 1));
+                    showSelectedView();
+                } catch (InterruptedException | ExecutionException e) {
+                    statusLabel.setText("Error loading attendance");
+                    System.err.println("Error loading heatmap data: " + e.getMessage());
+                    e.printStackTrace();
+                }
+                loading = false;
+                if (changedWhileLoading) {
+                    changedWhileLoading = false;
+                    loadHeatmapData();
+                }
+            }
+        });
+    }
+
+    private void showSelectedView() {
+        AttendanceHeatmapData data = viewComboBox.getSelectedIndex() == 1 ? teamData : employeeData;
+        if (data == null) {
+            return; // Still loading
+        }
+        heatmap.setData(data);
+        rowHeader.revalidate();
+        rowHeader.repaint();
+        columnHeader.revalidate();
+        columnHeader.repaint();
+    }
+
+    /*
+    Moves one record between cells of both views and repaints only the tiles
+    holding those cells. FileHandler only reports records that pass validation,
+    so rejected rows are never counted. While a load is running, or when a date
+    falls outside the grid, the views are rebuilt instead.
+    */
+    private void applyAttendanceChange(Attendance previous, Attendance current) {
+        if (loading || employeeData == null) {
+            loadHeatmapData();
+            return;
+        }
+        if ((previous != null && !employeeData.covers(previous.getDate()))
+                || (current != null && !employeeData.covers(current.getDate()))) {
+            loadHeatmapData();
+            return;
+        }
+        for (AttendanceHeatmapData data : new AttendanceHeatmapData[] { employeeData, teamData }) {
+            boolean shown = data == heatmap.getData();
+            if (previous != null) {
+                int cell = data.apply(previous, -1);
+                if (shown) {
+                    heatmap.cellChanged(cell);
+                }
+            }
+            if (current != null) {
+                int cell = data.apply(current, 1);
+                if (shown) {
+                    heatmap.cellChanged(cell);
+                }
+            }
+        }
+    }
+
+    // Series names beside the rows
+    private class RowHeader extends JComponent {
+        @Override
+        public Dimension getPreferredSize() {
+            AttendanceHeatmapData data = heatmap.getData();
+            return new Dimension(ROW_HEADER_WIDTH, data == null ? 0 : data.getSeriesCount() * AttendanceHeatmap.CELL_HEIGHT);
+        }
+
+        @Override
+        protected void paintComponent(Graphics g) {
+            Rectangle clip = g.getClipBounds();
+            g.setColor(getBackground() != null ? getBackground() : Color.WHITE);
+            g.fillRect(clip.x, clip.y, clip.width, clip.height);
+            AttendanceHeatmapData data = heatmap.getData();
+            if (data == null) {
+                return;
+            }
+            g.setFont(new Font("Segoe UI", 0, 10)); // NOI18N
+            g.setColor(new Color(24, 59, 78));
+            int first = clip.y / AttendanceHeatmap.CELL_HEIGHT;
+            int last = Math.min(data.getSeriesCount() - 1, (clip.y + clip.height) / AttendanceHeatmap.CELL_HEIGHT);
+            for (int series = first; series <= last; series++) {
+                g.drawString(data.getSeriesName(series), 4, (series + 1) * AttendanceHeatmap.CELL_HEIGHT - 3);
+            }
+        }
+    }
+
+    // Month labels above the first day of each month
+    private class ColumnHeader extends JComponent {
+        @Override
+        public Dimension getPreferredSize() {
+            AttendanceHeatmapData data = heatmap.getData();
+            return new Dimension(data == null ? 0 : data.getDayCount() * AttendanceHeatmap.CELL_WIDTH, COLUMN_HEADER_HEIGHT);
+        }
+
+        @Override
+        protected void paintComponent(Graphics g) {
+            Rectangle clip = g.getClipBounds();
+            g.setColor(Color.WHITE);
+            g.fillRect(clip.x, clip.y, clip.width, clip.height);
+            AttendanceHeatmapData data = heatmap.getData();
+            if (data == null) {
+                return;
+            }
+            g.setFont(new Font("Segoe UI", 0, 10)); // NOI18N
+            g.setColor(new Color(24, 59, 78));
+            // Start a little left of the clip so a label that begins off-screen is still drawn
+            int first = Math.max(0, clip.x / AttendanceHeatmap.CELL_WIDTH - 31);
+            int last = Math.min(data.getDayCount() - 1, (clip.x + clip.width) / AttendanceHeatmap.CELL_WIDTH);
+            for (int day = first; day <= last; day++) {
+                LocalDate date = data.getDate(day);
+                if (date.getDayOfMonth() == 1 || day == 0) {
+                    int x = day * AttendanceHeatmap.CELL_WIDTH;
+                    g.drawLine(x, COLUMN_HEADER_HEIGHT - 4, x, COLUMN_HEADER_HEIGHT);
+                    g.drawString(date.format(MONTH_LABEL), x + 2, COLUMN_HEADER_HEIGHT - 5);
+                }
+            }
+        }
+    }
+}
@@ -3,13 +3,13 @@ package motorph.gui;
 import java.awt.CardLayout;
 import javax.swing.JPanel;
 import java.awt.BorderLayout;
+import java.util.HashMap;
+import java.util.Map;
 
 public class MainApplication extends javax.swing.JFrame {
 
-    private JPanel dashboardPanel;
-    private JPanel employeesPanel;
-    private JPanel payrollPanel;
-    private JPanel attendancePanel;
+    // Panels by card name, created on first navigation
+    private final Map<String, JPanel> panels = new HashMap<>();
     private CardLayout cardLayout;
 
     private PayrollFrame payrollFrame;
@@ -26,12 +26,43 @@ public class MainApplication extends javax.swing.JFrame {
         cardLayout = new CardLayout();
         contentPanel.setLayout(cardLayout);
 
-        // Create and add panels
-        dashboardPanel = new DashboardPanel();
-        employeesPanel = new EmployeesPanel();
+        // Only the dashboard is built at startup; the other panels are built when first shown
+        showPanel("dashboard");
+    }
 
+    public void showPanel(String panelName) {
+        if (!panels.containsKey(panelName)) {
+            JPanel panel = createPanel(panelName);
+            if (panel == null) {
+                System.err.println("Unknown panel: " + panelName);
+                return;
+            }
+            panels.put(panelName, panel);
+            contentPanel.add(panel, panelName);
+        }
+        cardLayout.show(contentPanel, panelName);
+    }
+
+    private JPanel createPanel(String panelName) {
+        switch (panelName) {
+            case "dashboard":
+                return new DashboardPanel();
+            case "employees":
+                return new EmployeesPanel();
+            case "payroll":
+                return createPayrollPanel();
+            case "attendance":
+                return new AttendancePanel();
+            case "heatmap":
+                return new HeatmapPanel();
+            default:
+                return null;
+        }
+    }
+
+    private JPanel createPayrollPanel() {
         // Create a wrapper panel for PayrollFrame
-        payrollPanel = new JPanel();
+        JPanel payrollPanel = new JPanel();
         payrollPanel.setLayout(new java.awt.BorderLayout());
 
         // Create PayrollFrame and configure it
@@ -43,20 +74,7 @@ public class MainApplication extends javax.swing.JFrame {
 
         // Prevent PayrollFrame from closing the entire application when used as a component
         payrollFrame.setDefaultCloseOperation(javax.swing.WindowConstants.DO_NOTHING_ON_CLOSE);
-
-        attendancePanel = new AttendancePanel();
-
-        contentPanel.add(dashboardPanel, "dashboard");
-        contentPanel.add(employeesPanel, "employees");
-        contentPanel.add(payrollPanel, "payroll");
-        contentPanel.add(attendancePanel, "attendance");
-
-        // Show dashboard by default
-        cardLayout.show(contentPanel, "dashboard");
-    }
-
-    public void showPanel(String panelName) {
-        cardLayout.show(contentPanel, panelName);
+        return payrollPanel;
     }
 
     @SuppressWarnings("unchecked")
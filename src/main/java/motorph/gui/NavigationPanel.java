@@ -49,6 +49,13 @@ public class NavigationPanel extends javax.swing.JPanel {
                 if (mainApp != null) mainApp.showPanel("attendance");
             }
         });
+
+        heatmapButton.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                if (mainApp != null) mainApp.showPanel("heatmap");
+            }
+        });
     }
 
     // <editor-fold defaultstate="collapsed" desc="Generated Code">//GEN-BEGIN:initComponents
@@ -59,6 +66,7 @@ public class NavigationPanel extends javax.swing.JPanel {
         employeesButton = new javax.swing.JButton();
         payrollButton = new javax.swing.JButton();
         attendanceButton = new javax.swing.JButton();
+        heatmapButton = new javax.swing.JButton();
         jPanel2 = new javax.swing.JPanel();
 
         setPreferredSize(new java.awt.Dimension(160, 200));
@@ -83,6 +91,10 @@ public class NavigationPanel extends javax.swing.JPanel {
         attendanceButton.setText("Attendance");
         jPanel1.add(attendanceButton, new org.netbeans.lib.awtextra.AbsoluteConstraints(10, 260, 140, -1));
 
+        heatmapButton.setBackground(new java.awt.Color(51, 102, 255));
+        heatmapButton.setText("Heatmap");
+        jPanel1.add(heatmapButton, new org.netbeans.lib.awtextra.AbsoluteConstraints(10, 360, 140, -1));
+
         jPanel2.setBackground(new java.awt.Color(51, 153, 255));
         jPanel2.setBorder(javax.swing.BorderFactory.createEtchedBorder());
 
@@ -116,6 +128,7 @@ public class NavigationPanel extends javax.swing.JPanel {
     private javax.swing.JButton attendanceButton;
     private javax.swing.JButton dashboardButton;
     private javax.swing.JButton employeesButton;
+    private javax.swing.JButton heatmapButton;
     private javax.swing.JPanel jPanel1;
     private javax.swing.JPanel jPanel2;
     private javax.swing.JButton payrollButton;
@@ -7,12 +7,17 @@ import java.awt.event.ActionListener;
 import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
-import java.io.ByteArrayOutputStream;
-import java.io.PrintStream;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
 import motorph.PayrollCalculator;
+import motorph.PayrollReport;
 import motorph.FileHandler;
 import motorph.Employee;
+import motorph.EmployeeTrie;
+import motorph.WeeklyPayroll;
+import motorph.Attendance;
+import motorph.AttendanceIndex;
 import java.util.ArrayList;
 
 public class PayrollFrame extends JFrame {
@@ -20,59 +25,93 @@ public class PayrollFrame extends JFrame {
     private PayrollCalculator payrollCalculator;
     private FileHandler fileHandler;
     private Employee currentEmployee;
-    private List<Employee> employeeList;
+    private SwingWorker<PayrollReport, WeeklyPayroll> payrollWorker; // the calculation in progress, if any
+    private boolean payrollShown; // set once Calculate has been pressed; combo changes then recalculate
+    private List<YearMonth> availableMonths = new ArrayList<>(); // months in the month combo box, in order
+    private final AtomicInteger prefetchGeneration = new AtomicInteger(); // bumped to drop queued prefetches
+
+    // Size of the picture label (jLabel6) in the layout
+    private static final int PHOTO_WIDTH = 88;
+    private static final int PHOTO_HEIGHT = 52;
 
     public PayrollFrame() {
         initComponents();
         setBackground(new java.awt.Color(243, 243, 224));
         jPanel2.setBackground(new java.awt.Color(243, 243, 224));
-        fileHandler = new FileHandler();
-        payrollCalculator = new PayrollCalculator(fileHandler);
+        fileHandler = DataContext.getInstance().getFileHandler();
+        payrollCalculator = DataContext.getInstance().getPayrollCalculator();
 
         System.out.println("PayrollFrame constructor started.");
 
-        try {
-            employeeList = fileHandler.readEmployees();
-            if (employeeList == null || employeeList.isEmpty()) {
-                System.err.println("Employee list is empty or null after loading.");
-                employeeList = new ArrayList<>(); 
-            } else {
-                System.out.println("Successfully loaded " + employeeList.size() + " employees. Size: " + employeeList.size());
-            }
-            populateEmployeeComboBox();
-            populateMonthComboBox();
-            populateWeekComboBox();
-            System.out.println("ComboBoxes populated.");
-        } catch (Exception e) {
-            System.err.println("Error loading employee data: " + e.getMessage());
-            e.printStackTrace();
-        }
+        populateWeekComboBox();
+        showLoadingPlaceholders();
+        loadComboBoxData();
 
         employeeDetailsTextArea.setText("Select an employee and click Calculate to view details.");
         resultTextArea.setText("Payroll results will appear here.");
         
-        setupComputeButton();
+        setupEmployeePhoto();
         System.out.println("PayrollFrame constructor finished.");
     }
 
-    private void populateEmployeeComboBox() {
-        System.out.println("populateEmployeeComboBox() called.");
-        employeeComboBox.removeAllItems();
-        if (employeeList != null && !employeeList.isEmpty()) {
-            for (Employee employee : employeeList) {
-                employeeComboBox.addItem(employee.getEmployeeId() + " - " + employee.getLastName() + ", " + employee.getFirstName());
+    private void showLoadingPlaceholders() {
+        employeePicker.showMessage("Loading...");
+        monthComboBox.removeAllItems();
+        monthComboBox.addItem("Loading...");
+        calculateButton.setEnabled(false);
+    }
+
+    /*
+    Reads the employees and the months with attendance on the shared background
+    executor; the combo boxes and the Calculate button are filled in when done.
+    */
+    private void loadComboBoxData() {
+        BackgroundTasks.execute(new SwingWorker<Void, Void>() {
+            private List<Employee> employees;
+            private EmployeeTrie employeeTrie;
+            private List<YearMonth> months;
+
+            @Override
+            protected Void doInBackground() {
+                employees = DataContext.getInstance().getEmployees();
+                employeeTrie = new EmployeeTrie(employees);
+                months = DataContext.getInstance().getAvailableMonths();
+                return null;
+            }
+
+            @Override
+            protected void done() {
+                try {
+                    get();
+                    if (employees == null || employees.isEmpty()) {
+                        System.err.println("Employee list is empty or null after loading.");
+                    } else {
+                        System.out.println("Successfully loaded " + employees.size() + " employees.");
+                    }
+                    populateEmployeePicker(employeeTrie);
+                    populateMonthComboBox(months);
+                    System.out.println("ComboBoxes populated.");
+                } catch (InterruptedException | ExecutionException e) {
+                    System.err.println("Error loading employee data: " + e.getMessage());
+                    e.printStackTrace();
+                }
+                calculateButton.setEnabled(true);
             }
-            System.out.println(employeeComboBox.getItemCount() + " employees added to combo box.");
+        });
+    }
+
+    private void populateEmployeePicker(EmployeeTrie employeeTrie) {
+        if (employeeTrie != null && employeeTrie.size() > 0) {
+            employeePicker.setEmployees(employeeTrie);
         } else {
-            employeeComboBox.addItem("No employees found");
-            System.out.println("No employees found added to combo box.");
+            employeePicker.showMessage("No employees found");
         }
     }
 
-    private void populateMonthComboBox() {
+    private void populateMonthComboBox(List<YearMonth> months) {
         System.out.println("populateMonthComboBox() called.");
         monthComboBox.removeAllItems();
-        List<YearMonth> months = payrollCalculator.getAllAvailableMonths();
+        availableMonths = months != null ? new ArrayList<>(months) : new ArrayList<>();
         if (months != null && !months.isEmpty()) {
             for (YearMonth month : months) {
                 monthComboBox.addItem(month.format(DateTimeFormatter.ofPattern("MMMM yyyy")));
@@ -95,34 +134,51 @@ public class PayrollFrame extends JFrame {
         System.out.println("Week options added to combo box.");
     }
 
-    private void setupComputeButton() {
-        calculateButton.addActionListener(new ActionListener() {
-            @Override
-            public void actionPerformed(ActionEvent e) {
-                calculateAndDisplayPayroll();
+    /*
+    Shows the selected employee's photo as soon as the selection changes. The
+    photo is loaded off the EDT, so flipping through employees never waits on it.
+    */
+    private void setupEmployeePhoto() {
+        EmployeePhotos.clear(jLabel6);
+        employeePicker.addPropertyChangeListener(EmployeePicker.SELECTED_EMPLOYEE_PROPERTY, evt -> {
+            Employee selected = employeePicker.getSelectedEmployee();
+            if (selected == null) {
+                EmployeePhotos.clear(jLabel6); // Still loading, or no employees
+                return;
             }
+            EmployeePhotos.show(jLabel6, selected.getEmployeeId(), PHOTO_WIDTH, PHOTO_HEIGHT);
+            restartPayrollIfShown();
         });
     }
 
+    /*
+    Recalculates for the new selection once a payroll is on screen, so changing a
+    combo box replaces the result instead of leaving a stale one.
+    */
+    private void restartPayrollIfShown() {
+        if (payrollShown && calculateButton.isEnabled()) {
+            calculateAndDisplayPayroll();
+        }
+    }
+
     private void calculateAndDisplayPayroll() {
         System.out.println("calculateAndDisplayPayroll() called.");
-        if (employeeComboBox.getSelectedItem() == null || monthComboBox.getSelectedItem() == null) {
+        cancelPayrollWorker();
+        if (monthComboBox.getSelectedItem() == null) {
             resultTextArea.setText("Please select an employee and a month.");
-            System.out.println("Employee or month not selected.");
+            System.out.println("Month not selected.");
             return;
         }
 
         try {
-            String selectedItemText = employeeComboBox.getSelectedItem().toString();
-            if (selectedItemText.equals("No employees found")) {
+            // The picker hands back the Employee itself; no display text to parse
+            Employee selectedEmployee = employeePicker.getSelectedEmployee();
+            if (selectedEmployee == null) {
                 resultTextArea.setText("No valid employee selected.");
                 employeeDetailsTextArea.setText("No employee details available.");
                 return;
             }
-            
-            // Parse the employee ID from the combo box selection
-            String selectedEmployeeId = selectedItemText.split(" - ")[0];
-            System.out.println("Selected employee ID: " + selectedEmployeeId);
+            System.out.println("Selected employee ID: " + selectedEmployee.getEmployeeId());
             
             // Parse the month from the combo box selection
             String selectedMonthString = monthComboBox.getSelectedItem().toString();
@@ -132,13 +188,7 @@ public class PayrollFrame extends JFrame {
             YearMonth selectedMonth = parseYearMonth(selectedMonthString);
             System.out.println("Parsed month: " + selectedMonth);
             
-            // Find the employee by ID
-            currentEmployee = findEmployee(selectedEmployeeId);
-            if (currentEmployee == null) {
-                resultTextArea.setText("Employee not found: " + selectedEmployeeId);
-                System.out.println("Employee not found in list: " + selectedEmployeeId);
-                return;
-            }
+            currentEmployee = selectedEmployee;
             
             updateEmployeeDetails();
 
@@ -147,22 +197,8 @@ public class PayrollFrame extends JFrame {
             System.out.println("Selected week index: " + selectedWeek);
 
 
-            ByteArrayOutputStream baos = new ByteArrayOutputStream();
-            PrintStream ps = new PrintStream(baos);
-            PrintStream old = System.out;
-            System.setOut(ps);
-
-            payrollCalculator.processPayroll(currentEmployee.getEmployeeId(), selectedMonth, selectedWeek);
-
-            System.out.flush();
-            System.setOut(old);
-
-            String payrollResults = baos.toString();
-            if (payrollResults == null || payrollResults.trim().isEmpty()) {
-                resultTextArea.setText("No payroll data available for the selected criteria.");
-            } else {
-                resultTextArea.setText(payrollResults);
-            }
+            startPayrollWorker(currentEmployee, selectedMonth, selectedWeek);
+            payrollShown = true;
 
         } catch (Exception ex) {
             resultTextArea.setText("Error processing payroll: " + ex.getMessage());
@@ -171,6 +207,159 @@ public class PayrollFrame extends JFrame {
         }
     }
     
+    private void cancelPayrollWorker() {
+        prefetchGeneration.incrementAndGet();
+        if (payrollWorker != null) {
+            payrollWorker.cancel(true);
+            payrollWorker = null;
+        }
+    }
+
+    /*
+    Calculates on the shared background executor from the in-memory attendance.
+    Each finished week is published and appended to the result area, so "All Weeks"
+    fills in week by week. A newer selection cancels this worker, and anything it
+    still publishes or returns is then ignored.
+    */
+    private void startPayrollWorker(Employee employee, YearMonth month, int weekNumber) {
+        resultTextArea.setText(payrollCalculator.formatPayrollHeader(employee, month) + "\nCalculating...\n");
+        payrollWorker = new SwingWorker<PayrollReport, WeeklyPayroll>() {
+            private boolean weeksShown;
+
+            @Override
+            protected PayrollReport doInBackground() {
+                Employee current = currentRecordOf(employee);
+                List<Attendance> records = recordsFor(employee.getEmployeeId(), month);
+                if (isCancelled()) {
+                    return null;
+                }
+                // Served from the payroll result cache when nothing in the period has changed
+                return payrollCalculator.calculatePayroll(current, month, weekNumber, records, week -> {
+                    if (!isCancelled()) {
+                        publish(week);
+                    }
+                });
+            }
+
+            @Override
+            protected void process(List<WeeklyPayroll> weeks) {
+                if (isCancelled() || this != payrollWorker) {
+                    return;
+                }
+                if (!weeksShown) {
+                    resultTextArea.setText(payrollCalculator.formatPayrollHeader(employee, month));
+                    weeksShown = true;
+                }
+                for (WeeklyPayroll week : weeks) {
+                    resultTextArea.append(payrollCalculator.formatWeek(week));
+                }
+            }
+
+            @Override
+            protected void done() {
+                if (isCancelled() || this != payrollWorker) {
+                    return; // Superseded by a newer selection
+                }
+                payrollWorker = null;
+                try {
+                    String payrollResults = payrollCalculator.formatPayrollReport(get());
+                    prefetchNeighbours(employee, month, weekNumber);
+                    if (payrollResults == null || payrollResults.trim().isEmpty()) {
+                        resultTextArea.setText("No payroll data available for the selected criteria.");
+                    } else {
+                        resultTextArea.setText(payrollResults);
+                    }
+                    resultTextArea.setCaretPosition(0);
+                } catch (InterruptedException | ExecutionException e) {
+                    resultTextArea.setText("Error processing payroll: " + e.getMessage());
+                    System.err.println("Error in payroll calculation: " + e.getMessage());
+                    e.printStackTrace();
+                }
+            }
+        };
+        BackgroundTasks.execute(payrollWorker);
+    }
+
+    // The combo box list may predate an edit; calculate with the current record. Call off the EDT.
+    private static Employee currentRecordOf(Employee employee) {
+        for (Employee candidate : DataContext.getInstance().getEmployees()) {
+            if (candidate.getEmployeeId().equals(employee.getEmployeeId())) {
+                return candidate;
+            }
+        }
+        return employee;
+    }
+
+    // Only the employee's rows for the month, straight from the index. Call off the EDT.
+    private static List<Attendance> recordsFor(String employeeId, YearMonth month) {
+        AttendanceIndex index = DataContext.getInstance().getAttendanceIndex();
+        int[] rows = index.restrictToMonth(index.rowsForEmployee(employeeId), month);
+        List<Attendance> records = new ArrayList<>(rows.length);
+        for (int row : rows) {
+            records.add(index.getRecords().get(row));
+        }
+        return records;
+    }
+
+    /*
+    Speculatively calculates what the user is likely to look at next, so it is
+    already in the payroll result cache: the previous and next week (or month,
+    for "All Weeks"), the same week in the previous and next month, and the next
+    employee in the combo box. Runs on the low-priority prefetch thread; a new
+    calculation drops whatever has not started yet.
+    */
+    private void prefetchNeighbours(Employee employee, YearMonth month, int weekNumber) {
+        int generation = prefetchGeneration.get();
+        int lastWeek = weekComboBox.getItemCount() - 1;
+        int monthIndex = availableMonths.indexOf(month);
+
+        List<PrefetchTarget> targets = new ArrayList<>(); // most likely first
+        if (weekNumber > 0 && weekNumber < lastWeek) {
+            targets.add(new PrefetchTarget(employee, month, weekNumber + 1));
+        }
+        if (weekNumber > 1) {
+            targets.add(new PrefetchTarget(employee, month, weekNumber - 1));
+        }
+        if (monthIndex >= 0 && monthIndex + 1 < availableMonths.size()) {
+            targets.add(new PrefetchTarget(employee, availableMonths.get(monthIndex + 1), weekNumber));
+        }
+        if (monthIndex > 0) {
+            targets.add(new PrefetchTarget(employee, availableMonths.get(monthIndex - 1), weekNumber));
+        }
+        Employee nextEmployee = employeePicker.getEmployeeAfter(employee);
+        if (nextEmployee != null) {
+            targets.add(new PrefetchTarget(nextEmployee, month, weekNumber));
+        }
+
+        for (PrefetchTarget target : targets) {
+            BackgroundTasks.prefetch(() -> {
+                if (generation != prefetchGeneration.get()) {
+                    return; // The user has moved on; this guess is stale
+                }
+                try {
+                    Employee prefetchEmployee = currentRecordOf(target.employee);
+                    payrollCalculator.calculatePayroll(prefetchEmployee, target.month, target.weekNumber,
+                            recordsFor(prefetchEmployee.getEmployeeId(), target.month), week -> {});
+                } catch (Exception e) {
+                    System.err.println("Error prefetching payroll: " + e.getMessage());
+                }
+            });
+        }
+    }
+
+    // One employee and period to calculate ahead of time
+    private static final class PrefetchTarget {
+        final Employee employee;
+        final YearMonth month;
+        final int weekNumber;
+
+        PrefetchTarget(Employee employee, YearMonth month, int weekNumber) {
+            this.employee = employee;
+            this.month = month;
+            this.weekNumber = weekNumber;
+        }
+    }
+
     private void updateEmployeeDetails() {
         if (currentEmployee != null) {
             String details = "Employee ID: " + currentEmployee.getEmployeeId() + "\n" +
@@ -248,23 +437,6 @@ public class PayrollFrame extends JFrame {
         }
     }
 
-    private Employee findEmployee(String employeeId) {
-        System.out.println("findEmployee() called with employeeId: " + employeeId);
-        if (employeeList == null) {
-            System.err.println("Employee list is null");
-            return null;
-        }
-        
-        for (Employee emp : employeeList) {
-            if (emp != null && emp.getEmployeeId() != null && emp.getEmployeeId().equals(employeeId)) {
-                System.out.println("Employee found: " + emp.getFirstName() + " " + emp.getLastName());
-                return emp;
-            }
-        }
-        System.out.println("Employee not found: " + employeeId);
-        return null;
-    }
-    
     @SuppressWarnings("unchecked")
     // <editor-fold defaultstate="collapsed" desc="Generated Code">//GEN-BEGIN:initComponents
     private void initComponents() {
@@ -275,7 +447,7 @@ public class PayrollFrame extends JFrame {
         jLabel3 = new javax.swing.JLabel();
         calculateButton = new javax.swing.JButton();
         jLabel4 = new javax.swing.JLabel();
-        employeeComboBox = new javax.swing.JComboBox<>();
+        employeePicker = new motorph.gui.EmployeePicker();
         monthComboBox = new javax.swing.JComboBox<>();
         weekComboBox = new javax.swing.JComboBox<>();
         jPanel15 = new javax.swing.JPanel();
@@ -312,8 +484,6 @@ public class PayrollFrame extends JFrame {
         jLabel4.setForeground(new java.awt.Color(0, 0, 0));
         jLabel4.setText("Week");
 
-        employeeComboBox.setModel(new javax.swing.DefaultComboBoxModel<>(new String[] { "Item 1", "Item 2", "Item 3", "Item 4" }));
-
         monthComboBox.setModel(new javax.swing.DefaultComboBoxModel<>(new String[] { "Item 1", "Item 2", "Item 3", "Item 4" }));
         monthComboBox.addActionListener(new java.awt.event.ActionListener() {
             public void actionPerformed(java.awt.event.ActionEvent evt) {
@@ -385,7 +555,7 @@ public class PayrollFrame extends JFrame {
                                     .addGap(22, 22, 22)
                                     .addComponent(jLabel2, javax.swing.GroupLayout.PREFERRED_SIZE, 118, javax.swing.GroupLayout.PREFERRED_SIZE)
                                     .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.UNRELATED)
-                                    .addComponent(employeeComboBox, javax.swing.GroupLayout.PREFERRED_SIZE, 203, javax.swing.GroupLayout.PREFERRED_SIZE)))
+                                    .addComponent(employeePicker, javax.swing.GroupLayout.PREFERRED_SIZE, 203, javax.swing.GroupLayout.PREFERRED_SIZE)))
                             .addComponent(jLabel6, javax.swing.GroupLayout.PREFERRED_SIZE, 88, javax.swing.GroupLayout.PREFERRED_SIZE)
                             .addComponent(jScrollPane4, javax.swing.GroupLayout.PREFERRED_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.PREFERRED_SIZE)))
                     .addGroup(jPanel2Layout.createSequentialGroup()
@@ -408,7 +578,7 @@ public class PayrollFrame extends JFrame {
                 .addComponent(payrollTitle, javax.swing.GroupLayout.PREFERRED_SIZE, 53, javax.swing.GroupLayout.PREFERRED_SIZE)
                 .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.RELATED)
                 .addGroup(jPanel2Layout.createParallelGroup(javax.swing.GroupLayout.Alignment.BASELINE)
-                    .addComponent(employeeComboBox, javax.swing.GroupLayout.PREFERRED_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.PREFERRED_SIZE)
+                    .addComponent(employeePicker, javax.swing.GroupLayout.PREFERRED_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.PREFERRED_SIZE)
                     .addComponent(jLabel2)
                     .addComponent(jLabel1))
                 .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.UNRELATED)
@@ -453,11 +623,11 @@ public class PayrollFrame extends JFrame {
     }//GEN-LAST:event_calculateButtonActionPerformed
 
     private void monthComboBoxActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_monthComboBoxActionPerformed
-        // TODO add your handling code here:
+        restartPayrollIfShown();
     }//GEN-LAST:event_monthComboBoxActionPerformed
 
     private void weekComboBoxActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_weekComboBoxActionPerformed
-        // TODO add your handling code here:
+        restartPayrollIfShown();
     }//GEN-LAST:event_weekComboBoxActionPerformed
 
 
@@ -495,7 +665,7 @@ public class PayrollFrame extends JFrame {
 
     // Variables declaration - do not modify//GEN-BEGIN:variables
     private javax.swing.JButton calculateButton;
-    private javax.swing.JComboBox<String> employeeComboBox;
+    private motorph.gui.EmployeePicker employeePicker;
     private javax.swing.JTextArea employeeDetailsTextArea;
     private javax.swing.JLabel jLabel1;
     private javax.swing.JLabel jLabel2;